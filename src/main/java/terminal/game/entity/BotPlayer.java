@@ -13,7 +13,7 @@ public class BotPlayer extends Player {
 
     private String visibleMap; // string representation of the game map that the bot can use
 
-    private HumanPlayer player; // the human player object the bot will try to defeat
+    protected HumanPlayer player; // the human player object the bot will try to defeat
 
     private boolean mapRequired;
 
@@ -65,6 +65,12 @@ public class BotPlayer extends Player {
         mapRequired = !mapRequired;
     }
 
+    /**
+     * Releases any resources used by the bot once the game is over, the simple bot has none.
+     */
+    public void shutdown() {
+    }
+
     /**
      * If the bot can see the player in the game, then it will chase the player,
      * otherwise it will move randomly, in an attempt to find the player.
@@ -81,7 +87,7 @@ public class BotPlayer extends Player {
      * Loops through the map visible to the bot and checks for the player.
      * @return True if the player is in within the map that the bot can view.
      */
-    private boolean isPlayerVisible() {
+    protected boolean isPlayerVisible() {
         for (int i = 0; i < getVisibleMap().length(); i++) {
             if (getVisibleMap().charAt(i) == 'P') {
                 return true;
@@ -94,14 +100,14 @@ public class BotPlayer extends Player {
     /**
      * Moves the bot in a random direction.
      */
-    private void moveRandomDirection() {
+    protected void moveRandomDirection() {
         move(DIRECTIONS[new Random().nextInt(DIRECTIONS.length)]);
     }
 
     /**
      * Calculates and performs the best move to make in order to chase the player.
      */
-    private void moveTowardsPlayer() {
+    protected void moveTowardsPlayer() {
         if (player.getRow() <= this.row && player.getColumn() <= this.column) {
             // if player in top left quadrant of the map visible to bot, move bot in direction if the
             // horizontal distance between the player and bot is greater than the vertical distance,
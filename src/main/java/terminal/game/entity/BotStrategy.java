@@ -0,0 +1,71 @@
+package terminal.game.entity;
+
+import terminal.game.map.Map;
+
+/**
+ * The different bots that can be played against.
+ */
+public enum BotStrategy {
+
+    GREEDY, // moves straight towards the player when it can see them, see BotPlayer
+    LOOKAHEAD; // simulates the game to choose its moves, see LookaheadBotPlayer
+
+    /**
+     * Looks up a strategy by the name given on the command line, ignoring case.
+     * @param name the name of the strategy, e.g. greedy.
+     * @return The strategy with that name.
+     * @throws IllegalArgumentException if there is no strategy with that name.
+     */
+    public static BotStrategy fromName(String name) {
+        for (BotStrategy strategy : values()) {
+            if (strategy.name().equalsIgnoreCase(name.trim())) {
+                return strategy;
+            }
+        }
+
+        throw new IllegalArgumentException("Unknown bot: " + name);
+    }
+
+    /**
+     * Creates a bot that uses this strategy.
+     * @param gameMap the map the bot will play in.
+     * @param player the human player object opponent of the bot.
+     * @param turnBudgetMillis the time the bot can spend choosing a move, ignored by bots that do not plan.
+     * @param threads the number of threads the bot can use, ignored by bots that do not plan.
+     * @return The new bot.
+     */
+    public BotPlayer createBot(Map gameMap, HumanPlayer player, long turnBudgetMillis, int threads) {
+        return createBot(gameMap, player, turnBudgetMillis, threads, null);
+    }
+
+    /**
+     * Creates a bot that uses this strategy, sharing path distances that were measured once for the map.
+     * @param gameMap the map the bot will play in.
+     * @param player the human player object opponent of the bot.
+     * @param turnBudgetMillis the time the bot can spend choosing a move, ignored by bots that do not plan.
+     * @param threads the number of threads the bot can use, ignored by bots that do not plan.
+     * @param distances the result of {@link #measure(Map)} for the map, or null to measure it for this bot only.
+     * @return The new bot.
+     */
+    public BotPlayer createBot(Map gameMap, HumanPlayer player, long turnBudgetMillis, int threads,
+                               PathDistances distances) {
+        switch (this) {
+            case LOOKAHEAD:
+                return new LookaheadBotPlayer(gameMap, player, turnBudgetMillis,
+                        LookaheadBotPlayer.DEFAULT_ROLLOUT_DEPTH, threads, distances);
+
+            default:
+                return new BotPlayer(gameMap, player);
+        }
+    }
+
+    /**
+     * Measures the path distances of a map, so that many games on copies of it do not each measure them again.
+     * @param gameMap the map to measure.
+     * @return The distances, or null if bots of this strategy do not use them or the map is too large.
+     */
+    public PathDistances measure(Map gameMap) {
+        return this == LOOKAHEAD ? PathDistances.measure(gameMap) : null;
+    }
+
+}
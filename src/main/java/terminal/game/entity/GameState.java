@@ -0,0 +1,272 @@
+package terminal.game.entity;
+
+import terminal.game.map.Map;
+
+/**
+ * A lightweight, mutable copy of everything needed to simulate the game: the tiles of the
+ * map, the position of both players and the gold owned by the human player.
+ * <br></br>
+ * All storage is allocated once in the constructor. The state can then be loaded from the
+ * live game with {@link #capture(Map, HumanPlayer, BotPlayer)}, played forward, and rolled back
+ * to the captured snapshot with {@link #reset()}, so running many simulations does not create
+ * any new objects.
+ */
+public class GameState {
+
+    private static final char[] DIRECTIONS = {'N', 'E', 'S', 'W'};
+
+    private final char[][] tiles; // copy of the map tiles, changed when gold is picked up
+
+    private int goldRequired;
+
+    // positions and gold that the state is reset to
+    private int savedHumanRow;
+    private int savedHumanColumn;
+    private int savedBotRow;
+    private int savedBotColumn;
+    private int savedGold;
+
+    // current positions and gold of the simulation
+    private int humanRow;
+    private int humanColumn;
+    private int botRow;
+    private int botColumn;
+    private int gold;
+
+    // record of the gold tiles picked up since the last reset, so they can be put back
+    private final int[] pickupJournal;
+    private int journalSize;
+
+    /**
+     * Constructor that allocates a state large enough to hold the given map.
+     * @param gameMap the map the simulations will be run on.
+     */
+    public GameState(Map gameMap) {
+        tiles = new char[gameMap.getNumberOfRows()][gameMap.getNumberOfColumns()];
+
+        // every gold tile can only be picked up once, so the journal never needs to grow
+        pickupJournal = new int[gameMap.getNumberOfRows() * gameMap.getNumberOfColumns()];
+        journalSize = 0;
+    }
+
+    /**
+     * Copies the current game into this state and makes it the snapshot that {@link #reset()} returns to.
+     * @param gameMap the map of the game, must have the same size as the map given in the constructor.
+     * @param humanPlayer the human player in the game.
+     * @param bot the bot in the game.
+     */
+    public void capture(Map gameMap, HumanPlayer humanPlayer, BotPlayer bot) {
+        for (int i = 0; i < tiles.length; i++) {
+            System.arraycopy(gameMap.getMap()[i], 0, tiles[i], 0, tiles[i].length);
+        }
+
+        goldRequired = gameMap.getGoldRequired();
+
+        savedHumanRow = humanPlayer.getRow();
+        savedHumanColumn = humanPlayer.getColumn();
+        savedBotRow = bot.getRow();
+        savedBotColumn = bot.getColumn();
+        savedGold = humanPlayer.getGold();
+
+        journalSize = 0;
+        reset();
+    }
+
+    /**
+     * Copies another state into this state, including its snapshot.
+     * @param other the state to copy, must hold a map of the same size.
+     */
+    public void copyFrom(GameState other) {
+        for (int i = 0; i < tiles.length; i++) {
+            System.arraycopy(other.tiles[i], 0, tiles[i], 0, tiles[i].length);
+        }
+
+        goldRequired = other.goldRequired;
+
+        savedHumanRow = other.savedHumanRow;
+        savedHumanColumn = other.savedHumanColumn;
+        savedBotRow = other.savedBotRow;
+        savedBotColumn = other.savedBotColumn;
+        savedGold = other.savedGold;
+
+        humanRow = other.humanRow;
+        humanColumn = other.humanColumn;
+        botRow = other.botRow;
+        botColumn = other.botColumn;
+        gold = other.gold;
+
+        System.arraycopy(other.pickupJournal, 0, pickupJournal, 0, other.journalSize);
+        journalSize = other.journalSize;
+    }
+
+    /**
+     * Undoes every change made since the last capture, putting back any gold that was picked up.
+     */
+    public void reset() {
+        while (journalSize > 0) {
+            int tile = pickupJournal[--journalSize];
+            tiles[tile / tiles[0].length][tile % tiles[0].length] = 'G';
+        }
+
+        humanRow = savedHumanRow;
+        humanColumn = savedHumanColumn;
+        botRow = savedBotRow;
+        botColumn = savedBotColumn;
+        gold = savedGold;
+    }
+
+    /**
+     * @return The row the human player is on.
+     */
+    public int getHumanRow() {
+        return humanRow;
+    }
+
+    /**
+     * @return The column the human player is on.
+     */
+    public int getHumanColumn() {
+        return humanColumn;
+    }
+
+    /**
+     * @return The row the bot is on.
+     */
+    public int getBotRow() {
+        return botRow;
+    }
+
+    /**
+     * @return The column the bot is on.
+     */
+    public int getBotColumn() {
+        return botColumn;
+    }
+
+    /**
+     * @return The gold the human player owns.
+     */
+    public int getGold() {
+        return gold;
+    }
+
+    /**
+     * @return The character of the tile at the given position, or a wall if the position is outside the map.
+     * @param row the row of the tile.
+     * @param column the column of the tile.
+     */
+    public char getTile(int row, int column) {
+        if (row < 0 || row >= tiles.length || column < 0 || column >= tiles[row].length) {
+            return '#';
+        }
+
+        return tiles[row][column];
+    }
+
+    /**
+     * @return If the bot is on the same tile as the human player.
+     */
+    public boolean isPlayerCaught() {
+        return humanRow == botRow && humanColumn == botColumn;
+    }
+
+    /**
+     * @return If the human player would win by using the EXIT command.
+     */
+    public boolean canPlayerEscape() {
+        return gold >= goldRequired && tiles[humanRow][humanColumn] == 'E';
+    }
+
+    /**
+     * @return If the human player still needs gold and is standing on a gold tile.
+     */
+    public boolean canPlayerPickup() {
+        return gold < goldRequired && tiles[humanRow][humanColumn] == 'G';
+    }
+
+    /**
+     * Moves the human player, leaving them where they are if the move is blocked by a wall.
+     * @param direction the direction of the movement.
+     * @return If the move was a success.
+     */
+    public boolean moveHuman(char direction) {
+        int newRow = humanRow + rowOffset(direction);
+        int newColumn = humanColumn + columnOffset(direction);
+
+        if (getTile(newRow, newColumn) == '#') {
+            return false;
+        }
+
+        humanRow = newRow;
+        humanColumn = newColumn;
+
+        return true;
+    }
+
+    /**
+     * Moves the bot, leaving it where it is if the move is blocked by a wall.
+     * @param direction the direction of the movement.
+     * @return If the move was a success.
+     */
+    public boolean moveBot(char direction) {
+        int newRow = botRow + rowOffset(direction);
+        int newColumn = botColumn + columnOffset(direction);
+
+        if (getTile(newRow, newColumn) == '#') {
+            return false;
+        }
+
+        botRow = newRow;
+        botColumn = newColumn;
+
+        return true;
+    }
+
+    /**
+     * Performs the PICKUP command for the human player, recording the change so it can be undone.
+     * @return If the player successfully picked up gold.
+     */
+    public boolean pickup() {
+        if (tiles[humanRow][humanColumn] != 'G') {
+            return false;
+        }
+
+        tiles[humanRow][humanColumn] = '.';
+        pickupJournal[journalSize++] = humanRow * tiles[0].length + humanColumn;
+        gold++;
+
+        return true;
+    }
+
+    /**
+     * @return A copy of the directions a player can move in, N, E, S and W.
+     */
+    public static char[] getDirections() {
+        return DIRECTIONS.clone();
+    }
+
+    /**
+     * @return The change in row caused by moving in the given direction.
+     * @param direction the direction of the movement.
+     */
+    public static int rowOffset(char direction) {
+        switch (direction) {
+            case 'N': return -1;
+            case 'S': return 1;
+            default: return 0;
+        }
+    }
+
+    /**
+     * @return The change in column caused by moving in the given direction.
+     * @param direction the direction of the movement.
+     */
+    public static int columnOffset(char direction) {
+        switch (direction) {
+            case 'E': return 1;
+            case 'W': return -1;
+            default: return 0;
+        }
+    }
+
+}
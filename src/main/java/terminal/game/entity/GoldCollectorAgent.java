@@ -0,0 +1,133 @@
+package terminal.game.entity;
+
+import java.util.Arrays;
+
+import terminal.game.map.Map;
+
+/**
+ * Automated agent that plays as the human player. It walks the shortest path to the
+ * nearest gold until it has enough gold to win, then walks to the nearest exit and leaves.
+ * <br></br>
+ * The agent does not look out for the bot, so it gives a simple but realistic opponent
+ * for measuring how strong a bot is.
+ */
+public class GoldCollectorAgent implements PlayerAgent {
+
+    private final char[] DIRECTIONS = GameState.getDirections();
+
+    private final String[] MOVE_COMMANDS = new String[DIRECTIONS.length]; // the command for each direction
+
+    private Map gameMap; // the map the player is playing in
+
+    private HumanPlayer player; // the player controlled by the agent
+
+    // storage for the path search, created once and reused every turn
+    private final int[] queue;
+    private final int[] previous;
+
+    /**
+     * Constructor for GoldCollectorAgent object.
+     * @param gameMap the map the player is playing in.
+     * @param player the player controlled by the agent.
+     */
+    public GoldCollectorAgent(Map gameMap, HumanPlayer player) {
+        this.gameMap = gameMap;
+        this.player = player;
+
+        queue = new int[gameMap.getNumberOfRows() * gameMap.getNumberOfColumns()];
+        previous = new int[queue.length];
+
+        for (int d = 0; d < DIRECTIONS.length; d++) {
+            MOVE_COMMANDS[d] = "MOVE " + DIRECTIONS[d];
+        }
+    }
+
+    /**
+     * Picks up gold or exits when standing on the right tile, otherwise moves towards the next target.
+     * @return The command for the player.
+     */
+    @Override
+    public String getNextAction() {
+        char tile = gameMap.getMap()[player.getRow()][player.getColumn()];
+        boolean goldNeeded = player.getGold() < gameMap.getGoldRequired();
+
+        if (goldNeeded && tile == 'G') {
+            return "PICKUP";
+        } else if (!goldNeeded && tile == 'E') {
+            return "EXIT";
+        }
+
+        int direction = findFirstStep(goldNeeded ? 'G' : 'E');
+        if (direction < 0) {
+            return "LOOK"; // nothing reachable, wait and hope the map changes
+        }
+
+        return MOVE_COMMANDS[direction];
+    }
+
+    /**
+     * Breadth first search from the player to the nearest tile of the target type.
+     * @param target the tile character to search for.
+     * @return The index of the first move on the shortest path in DIRECTIONS, or -1 if there is no path.
+     */
+    private int findFirstStep(char target) {
+        char[][] tiles = gameMap.getMap();
+        int columns = gameMap.getNumberOfColumns();
+
+        int start = player.getRow() * columns + player.getColumn();
+
+        Arrays.fill(previous, -1);
+        previous[start] = start;
+
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = start;
+
+        while (head < tail) {
+            int current = queue[head++];
+            int row = current / columns;
+            int column = current % columns;
+
+            if (current != start && tiles[row][column] == target) {
+                // walk back along the path to find the tile next to the player
+                while (previous[current] != start) {
+                    current = previous[current];
+                }
+
+                return directionTo(start, current, columns);
+            }
+
+            for (char direction : DIRECTIONS) {
+                int newRow = row + GameState.rowOffset(direction);
+                int newColumn = column + GameState.columnOffset(direction);
+
+                if (newRow < 0 || newRow >= tiles.length || newColumn < 0 || newColumn >= columns
+                        || tiles[newRow][newColumn] == '#') {
+                    continue;
+                }
+
+                int next = newRow * columns + newColumn;
+                if (previous[next] < 0) {
+                    previous[next] = current;
+                    queue[tail++] = next;
+                }
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * @return The index in DIRECTIONS of the move between two neighbouring tiles.
+     */
+    private int directionTo(int from, int to, int columns) {
+        for (int d = 0; d < DIRECTIONS.length; d++) {
+            if (to == from + GameState.rowOffset(DIRECTIONS[d]) * columns + GameState.columnOffset(DIRECTIONS[d])) {
+                return d;
+            }
+        }
+
+        return -1;
+    }
+
+}
@@ -10,8 +10,10 @@ import terminal.game.map.Map;
 
 /**
  * Runs the game with a human player and contains code needed to read inputs.
+ * <br></br>
+ * By default the player is its own {@link PlayerAgent}, reading commands typed by the user.
  */
-public class HumanPlayer extends Player{
+public class HumanPlayer extends Player implements PlayerAgent {
 
     private final String[] COMMANDS = {"HELLO", "GOLD", "MOVE N", "MOVE E", "MOVE S", "MOVE W", "PICKUP", "LOOK", "EXIT"};
 
@@ -31,8 +33,6 @@ public class HumanPlayer extends Player{
         availableCommands = new ArrayList<String>();
         availableCommands.addAll(Arrays.asList(COMMANDS));
 
-        br = new BufferedReader(new InputStreamReader(System.in));
-
         gold = 0;
     }
 
@@ -54,9 +54,10 @@ public class HumanPlayer extends Player{
      * Process the users command and return the command as a string as long as it is a valid command.
      * @return the processed command or "Invalid" if the command is not recognised.
      */
+    @Override
     public String getNextAction() {
         while (true) {
-            String command = getInputFromPlayer().trim().toUpperCase();
+            String command = getInputFromPlayer();
 
             if (command == null) {
                 try {
@@ -69,6 +70,8 @@ public class HumanPlayer extends Player{
                 System.exit(0);
             }
 
+            command = command.trim().toUpperCase();
+
             if (availableCommands.contains(command)) {
                 return command;
             } else {
@@ -83,6 +86,11 @@ public class HumanPlayer extends Player{
      */
     private String getInputFromPlayer() {
         try {
+            // only open the console when it is needed, automated games never read from it
+            if (br == null) {
+                br = new BufferedReader(new InputStreamReader(System.in));
+            }
+
             return br.readLine();
         } catch(IOException e) {
             System.err.println("\nError: " + e.getMessage());
@@ -0,0 +1,414 @@
+package terminal.game.entity;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import terminal.game.map.Map;
+
+/**
+ * Bot that plans its moves by simulating the game ahead instead of only reacting to the
+ * position of the player.
+ * <br></br>
+ * When the bot can see the player, each possible move is tried in many short random games
+ * (rollouts). In a rollout the player mostly walks the shortest path to the nearest gold and then
+ * to the nearest exit, as a player trying to win would, and the bot chases the player along the
+ * shortest path around walls. The move that leads to the player being caught most often is
+ * chosen, which lets the bot cut the player off instead of following them. Rollouts are spread over a
+ * fixed number of threads and stop when the time budget for the turn runs out, so the bot
+ * gets stronger on machines with more cores without slowing the game down.
+ */
+public class LookaheadBotPlayer extends BotPlayer {
+
+    public static final long DEFAULT_TURN_BUDGET_MILLIS = 50;
+    public static final int DEFAULT_ROLLOUT_DEPTH = 16;
+
+    private static final char[] MOVES = GameState.getDirections();
+
+    private static final double PLAYER_NOISE = 0.1; // chance of the player making a random move in a rollout
+
+    private final long turnBudgetNanos;
+
+    private final int rolloutDepth; // the number of turns simulated in each rollout
+
+    private final GameState rootState; // the current game, copied by each worker before it starts
+
+    private final PathDistances distances; // null if the map is too large, straight line distances are used instead
+
+    // positions of the gold and exit tiles at the start of the game, as row * columns + column
+    private final int[] goldTiles;
+    private final int[] exitTiles;
+
+    private final ExecutorService pool; // null if there is only one worker
+    private final List<Rollout> workers;
+
+    /**
+     * Constructor for a lookahead bot using the default time budget and one thread per core.
+     * @param gameMap the map the player will play in.
+     * @param player the human player object opponent of the bot.
+     */
+    public LookaheadBotPlayer(Map gameMap, HumanPlayer player) {
+        this(gameMap, player, DEFAULT_TURN_BUDGET_MILLIS, DEFAULT_ROLLOUT_DEPTH,
+                Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructor for a lookahead bot.
+     * @param gameMap the map the player will play in.
+     * @param player the human player object opponent of the bot.
+     * @param turnBudgetMillis the time the bot is allowed to spend choosing each move.
+     * @param rolloutDepth the number of turns simulated in each rollout.
+     * @param threads the number of threads used to run the rollouts.
+     */
+    public LookaheadBotPlayer(Map gameMap, HumanPlayer player, long turnBudgetMillis, int rolloutDepth, int threads) {
+        this(gameMap, player, turnBudgetMillis, rolloutDepth, threads, null);
+    }
+
+    /**
+     * Constructor for a lookahead bot that shares the path distances of its map with other bots.
+     * @param gameMap the map the player will play in.
+     * @param player the human player object opponent of the bot.
+     * @param turnBudgetMillis the time the bot is allowed to spend choosing each move.
+     * @param rolloutDepth the number of turns simulated in each rollout.
+     * @param threads the number of threads used to run the rollouts, rollouts run on the calling thread if 1.
+     * @param distances the path distances of a map with the same walls, or null to measure them.
+     */
+    public LookaheadBotPlayer(Map gameMap, HumanPlayer player, long turnBudgetMillis, int rolloutDepth, int threads,
+                              PathDistances distances) {
+        super(gameMap, player);
+
+        this.turnBudgetNanos = TimeUnit.MILLISECONDS.toNanos(turnBudgetMillis);
+        this.rolloutDepth = rolloutDepth;
+
+        rootState = new GameState(gameMap);
+
+        this.distances = distances != null ? distances : PathDistances.measure(gameMap);
+
+        goldTiles = findTiles(gameMap, 'G');
+        exitTiles = findTiles(gameMap, 'E');
+
+        Rollout[] rollouts = new Rollout[Math.max(1, threads)];
+        for (int i = 0; i < rollouts.length; i++) {
+            rollouts[i] = new Rollout(gameMap);
+        }
+
+        workers = Arrays.asList(rollouts);
+
+        if (rollouts.length == 1) {
+            pool = null; // a single worker runs on the thread playing the game, so no thread is left waiting
+        } else {
+            // daemon threads so that a game that ends without calling shutdown() does not keep the program running
+            pool = Executors.newFixedThreadPool(rollouts.length, runnable -> {
+                Thread thread = new Thread(runnable, "lookahead-bot");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * If the bot can see the player then it simulates the game to find the best move,
+     * otherwise it moves randomly in an attempt to find the player.
+     */
+    @Override
+    public void moveBot() {
+        if (isPlayerVisible()) {
+            move(chooseMove());
+        } else {
+            moveRandomDirection();
+        }
+    }
+
+    /**
+     * Stops the threads used to run the rollouts, should be called once the game is over.
+     */
+    @Override
+    public void shutdown() {
+        if (pool != null) {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Runs rollouts for every possible move until the time budget runs out and combines the results.
+     * @return The direction of the move with the best score.
+     */
+    private char chooseMove() {
+        rootState.capture(gameMap, player, this);
+
+        long deadline = System.nanoTime() + turnBudgetNanos;
+        for (Rollout worker : workers) {
+            worker.prepare(deadline);
+        }
+
+        if (pool == null) {
+            workers.get(0).call();
+        } else {
+            try {
+                pool.invokeAll(workers);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        int chase = stepTowards(rootState, row, column, player.getRow(), player.getColumn());
+        char bestMove = MOVES[Math.max(chase, 0)];
+        double bestScore = Double.NEGATIVE_INFINITY;
+
+        for (int m = 0; m < MOVES.length; m++) {
+            int rollouts = 0;
+            int catches = 0;
+            int escapes = 0;
+            long catchTurns = 0;
+            long distance = 0;
+
+            for (Rollout worker : workers) {
+                rollouts += worker.rollouts[m];
+                catches += worker.catches[m];
+                escapes += worker.escapes[m];
+                catchTurns += worker.catchTurns[m];
+                distance += worker.distance[m];
+            }
+
+            if (rollouts == 0) {
+                continue; // ran out of time before this move was tried, keep the greedy move
+            }
+
+            // prefer moves that catch the player most often, then catch them sooner, then leave the bot closest
+            double catchRate = (catches - escapes) / (double) rollouts;
+            double catchTime = catches > 0 ? catchTurns / (double) catches / (rolloutDepth + 1) : 1;
+            double averageDistance = Math.min(1, distance / (double) rollouts
+                    / (gameMap.getNumberOfRows() + gameMap.getNumberOfColumns()));
+
+            double score = catchRate - 0.05 * catchTime - 0.05 * averageDistance;
+            if (score > bestScore) {
+                bestScore = score;
+                bestMove = MOVES[m];
+            }
+        }
+
+        return bestMove;
+    }
+
+    /**
+     * @return The positions of every tile of the given type, as row * columns + column.
+     */
+    private static int[] findTiles(Map gameMap, char tile) {
+        int count = 0;
+        for (char[] mapRow : gameMap.getMap()) {
+            for (char character : mapRow) {
+                if (character == tile) {
+                    count++;
+                }
+            }
+        }
+
+        int[] tiles = new int[count];
+        int columns = gameMap.getNumberOfColumns();
+        int index = 0;
+
+        for (int i = 0; i < gameMap.getNumberOfRows(); i++) {
+            for (int j = 0; j < columns; j++) {
+                if (gameMap.getMap()[i][j] == tile) {
+                    tiles[index++] = i * columns + j;
+                }
+            }
+        }
+
+        return tiles;
+    }
+
+    /**
+     * @return The number of moves between two tiles, going around walls if the map is small enough.
+     */
+    private int distance(int fromRow, int fromColumn, int toRow, int toColumn) {
+        if (distances == null) {
+            return Math.abs(fromRow - toRow) + Math.abs(fromColumn - toColumn);
+        }
+
+        return distances.getDistance(fromRow, fromColumn, toRow, toColumn);
+    }
+
+    /**
+     * Finds the move that takes a player one step along the shortest path to a target tile.
+     * @param state the state used to check for walls.
+     * @return The index in MOVES of the move, or -1 if every neighbouring tile is a wall.
+     */
+    private int stepTowards(GameState state, int fromRow, int fromColumn, int toRow, int toColumn) {
+        int bestMove = -1;
+        int bestDistance = Integer.MAX_VALUE;
+
+        for (int m = 0; m < MOVES.length; m++) {
+            int newRow = fromRow + GameState.rowOffset(MOVES[m]);
+            int newColumn = fromColumn + GameState.columnOffset(MOVES[m]);
+
+            if (state.getTile(newRow, newColumn) != '#') {
+                int newDistance = distance(newRow, newColumn, toRow, toColumn);
+                if (newDistance < bestDistance) {
+                    bestDistance = newDistance;
+                    bestMove = m;
+                }
+            }
+        }
+
+        return bestMove;
+    }
+
+    /**
+     * Runs rollouts on a single thread, using its own copy of the game state.
+     * All storage is created once and reused every turn.
+     */
+    private class Rollout implements Callable<Void> {
+
+        private final GameState state;
+
+        // results for each move in MOVES
+        private final int[] rollouts = new int[MOVES.length];
+        private final int[] catches = new int[MOVES.length];
+        private final int[] escapes = new int[MOVES.length];
+        private final long[] catchTurns = new long[MOVES.length];
+        private final long[] distance = new long[MOVES.length];
+
+        private long deadline;
+
+        Rollout(Map gameMap) {
+            state = new GameState(gameMap);
+        }
+
+        /**
+         * Clears the results of the previous turn.
+         * @param deadline the value of {@link System#nanoTime()} when the rollouts must stop.
+         */
+        void prepare(long deadline) {
+            this.deadline = deadline;
+
+            Arrays.fill(rollouts, 0);
+            Arrays.fill(catches, 0);
+            Arrays.fill(escapes, 0);
+            Arrays.fill(catchTurns, 0);
+            Arrays.fill(distance, 0);
+        }
+
+        @Override
+        public Void call() {
+            state.copyFrom(rootState);
+
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+
+            // try every move in turn so that each move gets the same number of rollouts
+            while (System.nanoTime() < deadline && !Thread.currentThread().isInterrupted()) {
+                for (int m = 0; m < MOVES.length; m++) {
+                    state.reset();
+                    simulate(m, random);
+                }
+            }
+
+            return null;
+        }
+
+        /**
+         * Plays one game forward from the current state, starting with the given bot move.
+         * The bot alternates between looking and moving, like in the real game, and chases
+         * the player whenever it moves.
+         */
+        private void simulate(int m, ThreadLocalRandom random) {
+            rollouts[m]++;
+
+            state.moveBot(MOVES[m]);
+            if (state.isPlayerCaught()) {
+                catches[m]++;
+                return;
+            }
+
+            boolean botMoves = false; // the bot looks on the turn after it moves
+            for (int turn = 1; turn <= rolloutDepth; turn++) {
+                if (playPlayerTurn(random)) {
+                    escapes[m]++;
+                    return;
+                }
+
+                if (botMoves) {
+                    int chase = stepTowards(state, state.getBotRow(), state.getBotColumn(),
+                            state.getHumanRow(), state.getHumanColumn());
+                    if (chase >= 0) {
+                        state.moveBot(MOVES[chase]);
+                    }
+                }
+
+                botMoves = !botMoves;
+
+                if (state.isPlayerCaught()) {
+                    catches[m]++;
+                    catchTurns[m] += turn;
+                    return;
+                }
+            }
+
+            distance[m] += distance(state.getBotRow(), state.getBotColumn(), state.getHumanRow(), state.getHumanColumn());
+        }
+
+        /**
+         * Plays a likely turn for the player: escape or pick up gold when possible, otherwise take
+         * a step towards the nearest gold, or the nearest exit once there is enough gold. A few
+         * moves are random, as a real player does not always take the shortest path.
+         * @return If the player escaped the dungeon.
+         */
+        private boolean playPlayerTurn(ThreadLocalRandom random) {
+            if (state.canPlayerEscape()) {
+                return true;
+            }
+
+            if (state.canPlayerPickup()) {
+                state.pickup();
+                return false;
+            }
+
+            int target = nearestTarget(state.getGold() < gameMap.getGoldRequired() ? goldTiles : exitTiles);
+
+            if (target < 0 || random.nextDouble() < PLAYER_NOISE) {
+                state.moveHuman(MOVES[random.nextInt(MOVES.length)]);
+                return false;
+            }
+
+            int columns = gameMap.getNumberOfColumns();
+            int step = stepTowards(state, state.getHumanRow(), state.getHumanColumn(), target / columns, target % columns);
+            if (step >= 0) {
+                state.moveHuman(MOVES[step]);
+            }
+
+            return false;
+        }
+
+        /**
+         * @return The closest of the given tiles to the player that is still in the map, or -1 if there are none.
+         */
+        private int nearestTarget(int[] tiles) {
+            int columns = gameMap.getNumberOfColumns();
+            int nearest = -1;
+            int nearestDistance = PathDistances.UNREACHABLE;
+
+            for (int tile : tiles) {
+                int tileRow = tile / columns;
+                int tileColumn = tile % columns;
+
+                // gold that has already been picked up is no longer a target
+                if (state.getTile(tileRow, tileColumn) == '.') {
+                    continue;
+                }
+
+                int tileDistance = distance(state.getHumanRow(), state.getHumanColumn(), tileRow, tileColumn);
+                if (tileDistance < nearestDistance) {
+                    nearestDistance = tileDistance;
+                    nearest = tile;
+                }
+            }
+
+            return nearest;
+        }
+    }
+
+}
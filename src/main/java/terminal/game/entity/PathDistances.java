@@ -0,0 +1,107 @@
+package terminal.game.entity;
+
+import java.util.Arrays;
+
+import terminal.game.map.Map;
+
+/**
+ * The length of the shortest path between every pair of tiles in a map, going around walls.
+ * <br></br>
+ * Walls never change during a game, so the distances are worked out once when the object is
+ * created and can then be looked up from any thread without creating any objects. Games played
+ * on copies of the same map can share one object.
+ */
+public class PathDistances {
+
+    public static final int UNREACHABLE = Short.MAX_VALUE;
+
+    public static final int MAX_TILES = 4096; // larger maps would need more than 32MB of distances
+
+    private final int rows;
+    private final int columns;
+
+    private final short[] distances; // distance from tile a to tile b at a * (rows * columns) + b
+
+    /**
+     * Constructor that runs a breadth first search from every open tile of the map.
+     * @param gameMap the map to measure.
+     * @throws IllegalArgumentException if the map has more than {@link #MAX_TILES} tiles.
+     */
+    public PathDistances(Map gameMap) {
+        rows = gameMap.getNumberOfRows();
+        columns = gameMap.getNumberOfColumns();
+
+        int tiles = rows * columns;
+        if (tiles > MAX_TILES) {
+            throw new IllegalArgumentException("Map too large for path distances: " + tiles + " tiles");
+        }
+
+        distances = new short[tiles * tiles];
+        Arrays.fill(distances, (short) UNREACHABLE);
+
+        char[][] map = gameMap.getMap();
+        char[] directions = GameState.getDirections();
+        int[] queue = new int[tiles];
+
+        for (int start = 0; start < tiles; start++) {
+            if (map[start / columns][start % columns] == '#') {
+                continue;
+            }
+
+            int offset = start * tiles;
+            distances[offset + start] = 0;
+
+            int head = 0;
+            int tail = 0;
+            queue[tail++] = start;
+
+            while (head < tail) {
+                int current = queue[head++];
+                int row = current / columns;
+                int column = current % columns;
+
+                for (char direction : directions) {
+                    int newRow = row + GameState.rowOffset(direction);
+                    int newColumn = column + GameState.columnOffset(direction);
+
+                    if (newRow < 0 || newRow >= rows || newColumn < 0 || newColumn >= columns
+                            || map[newRow][newColumn] == '#') {
+                        continue;
+                    }
+
+                    int next = newRow * columns + newColumn;
+                    if (distances[offset + next] == UNREACHABLE) {
+                        distances[offset + next] = (short) (distances[offset + current] + 1);
+                        queue[tail++] = next;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @param gameMap the map to measure.
+     * @return The distances of the map, or null if it has more than {@link #MAX_TILES} tiles.
+     */
+    public static PathDistances measure(Map gameMap) {
+        if (gameMap.getNumberOfRows() * gameMap.getNumberOfColumns() > MAX_TILES) {
+            return null;
+        }
+
+        return new PathDistances(gameMap);
+    }
+
+    /**
+     * @return The number of moves on the shortest path between two tiles, or {@link #UNREACHABLE}
+     * if there is no path or either tile is outside the map.
+     */
+    public int getDistance(int fromRow, int fromColumn, int toRow, int toColumn) {
+        if (fromRow < 0 || fromRow >= rows || fromColumn < 0 || fromColumn >= columns
+                || toRow < 0 || toRow >= rows || toColumn < 0 || toColumn >= columns) {
+            return UNREACHABLE;
+        }
+
+        return distances[(fromRow * columns + fromColumn) * rows * columns + toRow * columns + toColumn];
+    }
+
+}
@@ -0,0 +1,15 @@
+package terminal.game.entity;
+
+/**
+ * Decides the actions of the human player in the game, e.g. a person typing
+ * commands or a program playing automatically.
+ */
+public interface PlayerAgent {
+
+    /**
+     * @return The next command for the player, one of the game commands such as "MOVE N" or "PICKUP",
+     * or "Invalid" if the command is not recognised.
+     */
+    String getNextAction();
+
+}
@@ -0,0 +1,140 @@
+package terminal.game.event;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Writes every event to append-only binary log files, starting a new file once the current
+ * file reaches a maximum size.
+ * <br></br>
+ * Each record contains, in order: the event type ordinal (byte), time (long), game id (long),
+ * map name (UTF), turn (int), actor (char), row (int), column (int) and gold (int).
+ * Log files can be replayed into any sink with {@link #readLog(Path, GameEventSink)}.
+ */
+public class BinaryLogSink implements GameEventSink {
+
+    public static final long DEFAULT_MAX_FILE_BYTES = 64L * 1024 * 1024;
+
+    private static final String FILE_PREFIX = "events-";
+    private static final String FILE_EXTENSION = ".bin";
+
+    private static final AtomicInteger sinkCount = new AtomicInteger(); // sinks created by this process
+
+    private final Path directory;
+    private final long maxFileBytes;
+
+    private final String logName; // part of each file name, so that separate sinks never write to the same file
+    private int fileNumber;
+
+    private DataOutputStream output;
+
+    /**
+     * Constructor for a log using the default maximum file size.
+     * @param directory the directory the log files are written to, created if it does not exist.
+     * @throws IOException if the first log file cannot be created.
+     */
+    public BinaryLogSink(Path directory) throws IOException {
+        this(directory, DEFAULT_MAX_FILE_BYTES);
+    }
+
+    /**
+     * Constructor for BinaryLogSink object.
+     * @param directory the directory the log files are written to, created if it does not exist.
+     * @param maxFileBytes the size a file can reach before a new file is started.
+     * @throws IOException if the first log file cannot be created.
+     */
+    public BinaryLogSink(Path directory, long maxFileBytes) throws IOException {
+        this.directory = directory;
+        this.maxFileBytes = maxFileBytes;
+
+        // the time alone is not enough, several sinks can be created in the same millisecond
+        logName = System.currentTimeMillis() + "-" + ProcessHandle.current().pid() + "-" + sinkCount.incrementAndGet();
+        fileNumber = 0;
+
+        Files.createDirectories(directory);
+        openNextFile();
+    }
+
+    @Override
+    public void onEvent(GameEvent event) throws IOException {
+        output.writeByte(event.getType().ordinal());
+        output.writeLong(event.getTime());
+        output.writeLong(event.getGameId());
+        output.writeUTF(event.getMapName());
+        output.writeInt(event.getTurn());
+        output.writeChar(event.getActor());
+        output.writeInt(event.getRow());
+        output.writeInt(event.getColumn());
+        output.writeInt(event.getGold());
+
+        if (output.size() >= maxFileBytes) {
+            output.close();
+            openNextFile();
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        output.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        output.close();
+    }
+
+    /**
+     * Starts writing to a new log file. The file must not exist yet, so another log is never
+     * appended to.
+     * @throws IOException if the file cannot be created or already exists.
+     */
+    private void openNextFile() throws IOException {
+        fileNumber++;
+
+        Path file = directory.resolve(FILE_PREFIX + logName + "-" + fileNumber + FILE_EXTENSION);
+
+        output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file,
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)));
+    }
+
+    /**
+     * Reads every event in a log file and passes it to a sink, e.g. an {@link EventAggregator}.
+     * @param file the log file to read.
+     * @param sink the sink that receives the events.
+     * @return The number of events read.
+     * @throws IOException if the file cannot be read.
+     */
+    public static long readLog(Path file, GameEventSink sink) throws IOException {
+        GameEventType[] types = GameEventType.values();
+        GameEvent event = new GameEvent();
+        long count = 0;
+
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            while (true) {
+                int type;
+                try {
+                    type = input.readUnsignedByte();
+                } catch (EOFException e) {
+                    break; // end of the log
+                }
+
+                event.set(types[type], input.readLong(), input.readLong(), input.readUTF(), input.readInt(),
+                        input.readChar(), input.readInt(), input.readInt(), input.readInt());
+
+                sink.onEvent(event);
+                count++;
+            }
+        }
+
+        return count;
+    }
+
+}
@@ -0,0 +1,86 @@
+package terminal.game.event;
+
+import java.util.HashMap;
+
+/**
+ * Keeps running totals of the events it receives, for analysing games while they are played.
+ * <br></br>
+ * Counts every type of event, where on each map the player was caught, and on which turns
+ * gold was picked up. Results can be read from any thread.
+ */
+public class EventAggregator implements GameEventSink {
+
+    public static final int MAX_TRACKED_TURN = 1000; // pickups after this turn are counted in the last bucket
+
+    private final long[] counts = new long[GameEventType.values().length];
+
+    // number of catches at each position, by map name and then by row * 2^32 + column
+    private final HashMap<String, HashMap<Long, Long>> catchPositions = new HashMap<String, HashMap<Long, Long>>();
+
+    private final long[] pickupTurns = new long[MAX_TRACKED_TURN + 1];
+    private long pickupTurnTotal;
+
+    @Override
+    public synchronized void onEvent(GameEvent event) {
+        counts[event.getType().ordinal()]++;
+
+        if (event.getType() == GameEventType.CAUGHT) {
+            long position = ((long) event.getRow() << 32) | (event.getColumn() & 0xFFFFFFFFL);
+            catchPositions.computeIfAbsent(event.getMapName(), name -> new HashMap<Long, Long>())
+                    .merge(position, 1L, Long::sum);
+        } else if (event.getType() == GameEventType.PICKUP_SUCCESS) {
+            pickupTurns[Math.min(event.getTurn(), MAX_TRACKED_TURN)]++;
+            pickupTurnTotal += event.getTurn();
+        }
+    }
+
+    /**
+     * @return The number of events of the given type received.
+     * @param type the type of event.
+     */
+    public synchronized long getCount(GameEventType type) {
+        return counts[type.ordinal()];
+    }
+
+    /**
+     * Creates a grid of how many times the player was caught at each position of a map.
+     * @param mapName the name of the map.
+     * @param rows the number of rows in the map.
+     * @param columns the number of columns in the map.
+     * @return The number of catches at each row and column, all zero if the map has no catches.
+     */
+    public synchronized long[][] getCatchHeatmap(String mapName, int rows, int columns) {
+        long[][] heatmap = new long[rows][columns];
+
+        HashMap<Long, Long> positions = catchPositions.get(mapName);
+        if (positions != null) {
+            for (java.util.Map.Entry<Long, Long> entry : positions.entrySet()) {
+                int row = (int) (entry.getKey() >> 32);
+                int column = (int) (long) entry.getKey();
+
+                if (row >= 0 && row < rows && column >= 0 && column < columns) {
+                    heatmap[row][column] = entry.getValue();
+                }
+            }
+        }
+
+        return heatmap;
+    }
+
+    /**
+     * @return The number of successful pickups on each turn, with pickups after
+     * {@link #MAX_TRACKED_TURN} counted in the last element.
+     */
+    public synchronized long[] getPickupTurnHistogram() {
+        return pickupTurns.clone();
+    }
+
+    /**
+     * @return The average turn on which gold was picked up, or 0 if no gold was picked up.
+     */
+    public synchronized double getAveragePickupTurn() {
+        long pickups = counts[GameEventType.PICKUP_SUCCESS.ordinal()];
+        return pickups == 0 ? 0 : pickupTurnTotal / (double) pickups;
+    }
+
+}
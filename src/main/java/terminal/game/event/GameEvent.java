@@ -0,0 +1,106 @@
+package terminal.game.event;
+
+/**
+ * Something that happened in a game, e.g. a move or the player being caught.
+ * <br></br>
+ * Events are stored in the slots of a {@link GameEventBus} and are reused, so publishing an
+ * event does not create any objects.
+ */
+public class GameEvent {
+
+    private GameEventType type;
+
+    private long time; // milliseconds since the epoch when the event was published
+
+    private long gameId;
+    private String mapName;
+    private int turn;
+
+    private char actor; // 'P' for the human player or 'B' for the bot, the same as the tiles shown by LOOK
+
+    // position of the actor after the action
+    private int row;
+    private int column;
+
+    private int gold; // gold owned by the human player after the action
+
+    /**
+     * Sets every value of the event.
+     */
+    void set(GameEventType type, long time, long gameId, String mapName, int turn, char actor,
+            int row, int column, int gold) {
+        this.type = type;
+        this.time = time;
+        this.gameId = gameId;
+        this.mapName = mapName;
+        this.turn = turn;
+        this.actor = actor;
+        this.row = row;
+        this.column = column;
+        this.gold = gold;
+    }
+
+    /**
+     * @return The type of the event.
+     */
+    public GameEventType getType() {
+        return type;
+    }
+
+    /**
+     * @return The time the event was published, in milliseconds since the epoch.
+     */
+    public long getTime() {
+        return time;
+    }
+
+    /**
+     * @return The id of the game the event happened in, unique within a {@link GameEventBus}.
+     */
+    public long getGameId() {
+        return gameId;
+    }
+
+    /**
+     * @return The name of the map the game was played on.
+     */
+    public String getMapName() {
+        return mapName;
+    }
+
+    /**
+     * @return The turn of the game the event happened on, starting from 1.
+     */
+    public int getTurn() {
+        return turn;
+    }
+
+    /**
+     * @return 'P' if the human player performed the action, or 'B' if the bot did.
+     */
+    public char getActor() {
+        return actor;
+    }
+
+    /**
+     * @return The row of the actor after the action.
+     */
+    public int getRow() {
+        return row;
+    }
+
+    /**
+     * @return The column of the actor after the action.
+     */
+    public int getColumn() {
+        return column;
+    }
+
+    /**
+     * @return The gold owned by the human player after the action.
+     */
+    public int getGold() {
+        return gold;
+    }
+
+}
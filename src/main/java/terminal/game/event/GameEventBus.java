@@ -0,0 +1,236 @@
+package terminal.game.event;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Passes game events from the game threads to a set of {@link GameEventSink}s without slowing the games down.
+ * <br></br>
+ * Events are written into a fixed size ring of reusable {@link GameEvent} slots. Any number of threads
+ * can publish at the same time; each claims a slot with a compare-and-set and never waits for a lock.
+ * A single background thread reads the events in order and passes them to every sink. If the sinks
+ * fall so far behind that the ring is full, new events are dropped and counted instead of making the
+ * game wait. A sink that fails is reported once and receives no more events.
+ */
+public class GameEventBus {
+
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+
+    private static final long IDLE_PARK_NANOS = 100_000;
+    private static final long SLEEP_PARK_NANOS = 10_000_000; // used once the bus has been idle for a while
+    private static final int POLLS_BEFORE_SLEEP = 100;
+
+    private final GameEvent[] ring;
+    private final int mask; // capacity - 1, used instead of the remainder as the capacity is a power of 2
+
+    // sequence number of the event in each slot once it has been fully written, -1 if never written
+    private final AtomicLongArray published;
+
+    private final AtomicLong claimed = new AtomicLong(); // the next sequence number a publisher can claim
+    private volatile long consumed; // the next sequence number the consumer will read
+
+    private final AtomicLong gameIds = new AtomicLong();
+    private final LongAdder dropped = new LongAdder();
+
+    private final List<GameEventSink> sinks;
+    private final boolean[] failed; // sinks that threw an exception, only used by the consumer thread
+
+    private final Thread consumer;
+    private volatile boolean running;
+
+    /**
+     * Constructor for a bus using the default capacity.
+     * @param sinks the sinks that receive every event.
+     */
+    public GameEventBus(GameEventSink... sinks) {
+        this(DEFAULT_CAPACITY, sinks);
+    }
+
+    /**
+     * Constructor for GameEventBus object, starts the thread that passes events to the sinks.
+     * @param capacity the number of events that can wait to be handled, rounded up to a power of 2.
+     * @param sinks the sinks that receive every event.
+     */
+    public GameEventBus(int capacity, GameEventSink... sinks) {
+        int size = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+
+        ring = new GameEvent[size];
+        for (int i = 0; i < size; i++) {
+            ring[i] = new GameEvent();
+        }
+
+        mask = size - 1;
+
+        published = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            published.set(i, -1);
+        }
+
+        this.sinks = new ArrayList<GameEventSink>(Arrays.asList(sinks));
+        failed = new boolean[sinks.length];
+
+        running = true;
+
+        consumer = new Thread(this::consume, "game-event-bus");
+        consumer.setDaemon(true);
+        consumer.start();
+    }
+
+    /**
+     * @return A new id for a game, so that the events of different games can be told apart.
+     */
+    public long nextGameId() {
+        return gameIds.incrementAndGet();
+    }
+
+    /**
+     * @return The number of events dropped because the ring was full.
+     */
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    /**
+     * @return The number of events that have been published and not dropped.
+     */
+    public long getPublishedCount() {
+        return claimed.get();
+    }
+
+    /**
+     * Adds an event to the ring without waiting.
+     * @param type the type of the event.
+     * @param gameId the id of the game, from {@link #nextGameId()}.
+     * @param mapName the name of the map the game is played on.
+     * @param turn the turn the event happened on.
+     * @param actor 'P' for the human player or 'B' for the bot.
+     * @param row the row of the actor after the action.
+     * @param column the column of the actor after the action.
+     * @param gold the gold owned by the human player after the action.
+     * @return True if the event was published, false if it was dropped because the ring was full or the bus is closed.
+     */
+    public boolean publish(GameEventType type, long gameId, String mapName, int turn, char actor,
+            int row, int column, int gold) {
+        if (!running) {
+            dropped.increment();
+            return false;
+        }
+
+        long sequence;
+        do {
+            sequence = claimed.get();
+
+            if (sequence - consumed >= ring.length) {
+                dropped.increment();
+                return false;
+            }
+        } while (!claimed.compareAndSet(sequence, sequence + 1));
+
+        int index = (int) (sequence & mask);
+        ring[index].set(type, System.currentTimeMillis(), gameId, mapName, turn, actor, row, column, gold);
+
+        // mark the slot as written, the consumer will not read it before this
+        published.lazySet(index, sequence);
+
+        return true;
+    }
+
+    /**
+     * Stops accepting events, waits for every published event to reach the sinks and then closes the sinks.
+     * @throws InterruptedException if interrupted while waiting for the events to be handled.
+     */
+    public void close() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(consumer); // do not wait for an idle consumer to wake up
+        consumer.join();
+
+        for (GameEventSink sink : sinks) {
+            try {
+                sink.close();
+            } catch (IOException e) {
+                System.err.println("\nError: " + e.getMessage());
+                System.err.println("Cause: " + e.getCause());
+            }
+        }
+    }
+
+    /**
+     * Loop run by the consumer thread, passing events to the sinks in the order they were claimed.
+     */
+    private void consume() {
+        long sequence = 0;
+        boolean flushed = true;
+        int emptyPolls = 0;
+
+        while (true) {
+            int index = (int) (sequence & mask);
+
+            if (published.get(index) == sequence) {
+                GameEvent event = ring[index];
+
+                for (int i = 0; i < sinks.size(); i++) {
+                    if (!failed[i]) {
+                        try {
+                            sinks.get(i).onEvent(event);
+                        } catch (IOException e) {
+                            disableSink(i, e);
+                        }
+                    }
+                }
+
+                sequence++;
+                consumed = sequence; // frees the slot for publishers
+                flushed = false;
+                emptyPolls = 0;
+            } else if (!running && sequence == claimed.get()) {
+                break; // closed and every claimed event has been handled
+            } else {
+                if (!flushed) {
+                    flushSinks();
+                    flushed = true;
+                }
+
+                // check often while games are running, but do not keep waking up once they have stopped
+                emptyPolls++;
+                LockSupport.parkNanos(emptyPolls < POLLS_BEFORE_SLEEP ? IDLE_PARK_NANOS : SLEEP_PARK_NANOS);
+            }
+        }
+
+        flushSinks();
+    }
+
+    /**
+     * Flushes every sink that has not failed.
+     */
+    private void flushSinks() {
+        for (int i = 0; i < sinks.size(); i++) {
+            if (!failed[i]) {
+                try {
+                    sinks.get(i).flush();
+                } catch (IOException e) {
+                    disableSink(i, e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Stops passing events to a sink that failed, so the error is only reported once.
+     * @param index the index of the sink.
+     * @param e the exception thrown by the sink.
+     */
+    private void disableSink(int index, IOException e) {
+        failed[index] = true;
+
+        System.err.println("\nError: " + e.getMessage());
+        System.err.println("The event sink " + sinks.get(index).getClass().getSimpleName()
+                + " has been disabled, later events are not passed to it.");
+    }
+
+}
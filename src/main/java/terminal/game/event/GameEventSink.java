@@ -0,0 +1,35 @@
+package terminal.game.event;
+
+import java.io.IOException;
+
+/**
+ * Receives the events published to a {@link GameEventBus}.
+ * <br></br>
+ * All methods are called from the single thread of the bus, so sinks do not need to be thread safe
+ * unless other threads read from them. The event object is reused after the method returns, so a
+ * sink must copy any values it wants to keep.
+ */
+public interface GameEventSink {
+
+    /**
+     * Handles a single event.
+     * @param event the event, only valid until the method returns.
+     * @throws IOException if the event could not be written.
+     */
+    void onEvent(GameEvent event) throws IOException;
+
+    /**
+     * Called when there are no more events waiting, e.g. to write buffered data.
+     * @throws IOException if buffered data could not be written.
+     */
+    default void flush() throws IOException {
+    }
+
+    /**
+     * Called once the bus is closed and every event has been handled.
+     * @throws IOException if the sink could not be closed.
+     */
+    default void close() throws IOException {
+    }
+
+}
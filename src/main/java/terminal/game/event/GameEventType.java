@@ -0,0 +1,16 @@
+package terminal.game.event;
+
+/**
+ * The actions and results that are published as {@link GameEvent}s.
+ */
+public enum GameEventType {
+
+    MOVE_SUCCESS, // a player moved to a new tile
+    MOVE_FAIL, // a player tried to move into a wall
+    PICKUP_SUCCESS, // the human player picked up gold
+    PICKUP_FAIL, // the human player tried to pick up gold where there was none
+    CAUGHT, // the bot caught the human player
+    WIN, // the human player escaped with enough gold
+    LOSE // the human player exited without enough gold or not on an exit tile
+
+}
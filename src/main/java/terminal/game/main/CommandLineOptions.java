@@ -0,0 +1,70 @@
+package terminal.game.main;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Command line options given as "--name value" pairs, e.g. "--games 100 --threads 4".
+ * Options that are not given take the default value passed to the getter.
+ */
+public class CommandLineOptions {
+
+    private final java.util.Map<String, String> values = new HashMap<String, String>();
+
+    /**
+     * Reads the options from the command line arguments.
+     * @param args the command line arguments.
+     * @param names the names of the options that are allowed, e.g. "--games".
+     * @throws IllegalArgumentException if an option is not allowed or has no value.
+     */
+    public CommandLineOptions(String[] args, String... names) {
+        Set<String> allowed = new HashSet<String>();
+        for (String name : names) {
+            allowed.add(name);
+        }
+
+        for (int i = 0; i < args.length; i += 2) {
+            if (!allowed.contains(args[i])) {
+                throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Missing value for option: " + args[i]);
+            }
+
+            values.put(args[i], args[i + 1]);
+        }
+    }
+
+    /**
+     * @return If the option was given.
+     */
+    public boolean has(String name) {
+        return values.containsKey(name);
+    }
+
+    /**
+     * @return The value of the option, or the default value if it was not given.
+     */
+    public String getString(String name, String defaultValue) {
+        return values.getOrDefault(name, defaultValue);
+    }
+
+    /**
+     * @return The value of the option as a number, or the default value if it was not given.
+     * @throws NumberFormatException if the value is not a number.
+     */
+    public int getInt(String name, int defaultValue) {
+        return has(name) ? Integer.parseInt(values.get(name)) : defaultValue;
+    }
+
+    /**
+     * @return The value of the option as a number, or the default value if it was not given.
+     * @throws NumberFormatException if the value is not a number.
+     */
+    public long getLong(String name, long defaultValue) {
+        return has(name) ? Long.parseLong(values.get(name)) : defaultValue;
+    }
+
+}
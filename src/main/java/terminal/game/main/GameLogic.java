@@ -1,75 +1,264 @@
 package terminal.game.main;
 
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
 import java.util.Scanner;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
 
 import terminal.game.entity.BotPlayer;
+import terminal.game.entity.BotStrategy;
+import terminal.game.entity.GameState;
+import terminal.game.entity.GoldCollectorAgent;
 import terminal.game.entity.HumanPlayer;
+import terminal.game.entity.LookaheadBotPlayer;
+import terminal.game.entity.PathDistances;
 import terminal.game.entity.Player;
+import terminal.game.entity.PlayerAgent;
+import terminal.game.event.GameEventBus;
+import terminal.game.event.GameEventType;
 import terminal.game.map.Map;
+import terminal.game.map.MapRegistry;
 
 /**
  * Contains the main game logic.
  */
 public class GameLogic {
 
+    private MapRegistry mapRegistry; // the maps the user can choose from
+
     private Map map;
 
     private HumanPlayer humanPlayer;
     private BotPlayer bot;
 
+    private PlayerAgent agent; // decides the actions of the human player
+
     private boolean running;
+    private boolean verbose; // whether feedback is printed to the console
+
+    private GameOutcome outcome;
+    private int turns;
+
+    private GameEventBus eventBus; // receives an event for every action, null if events are not recorded
+    private long gameId;
 
     private Scanner reader;
 
     /**
-     * Default constructor.
+     * Default constructor, reads the maps from the default map directory.
      */
     public GameLogic() {
+        this(createDefaultRegistry());
+    }
+
+    /**
+     * Constructor that lets the user choose a map from an already loaded registry, so
+     * that many games can share the same maps without reading them again.
+     * @param mapRegistry the maps the user can choose from.
+     */
+    public GameLogic(MapRegistry mapRegistry) {
         running = false;
+        verbose = true;
+
+        this.mapRegistry = mapRegistry;
 
         map = generateMap();
 
         humanPlayer = new HumanPlayer(map);
 
         bot = new BotPlayer(map, humanPlayer);
+
+        agent = humanPlayer;
+    }
+
+    /**
+     * Constructor for games started with command line options, so the user is not asked for a map.
+     * @param options the options the game was started with.
+     * @param pendingMap the map being read on another thread, null if it could not be read.
+     */
+    public GameLogic(LaunchOptions options, Future<Map> pendingMap) {
+        running = false;
+        verbose = true;
+
+        // while the map is being read, load the classes needed for the first turn
+        preloadClasses();
+
+        Map chosenMap;
+        try {
+            chosenMap = pendingMap.get();
+        } catch (InterruptedException | ExecutionException e) {
+            chosenMap = null;
+        }
+
+        map = reportMap(chosenMap, options.getMapName());
+
+        humanPlayer = new HumanPlayer(map);
+
+        bot = options.getStrategy().createBot(map, humanPlayer, LookaheadBotPlayer.DEFAULT_TURN_BUDGET_MILLIS,
+                Runtime.getRuntime().availableProcessors());
+
+        agent = options.isAutomated() ? new GoldCollectorAgent(map, humanPlayer) : humanPlayer;
+    }
+
+    /**
+     * Constructor for automated games, uses the given map and players instead of asking the user
+     * and does not print any feedback.
+     * @param map the map the game is played in, changed as gold is picked up.
+     * @param humanPlayer the human player in the game.
+     * @param bot the bot in the game.
+     * @param agent decides the actions of the human player.
+     */
+    public GameLogic(Map map, HumanPlayer humanPlayer, BotPlayer bot, PlayerAgent agent) {
+        running = false;
+        verbose = false;
+
+        this.map = map;
+        this.humanPlayer = humanPlayer;
+        this.bot = bot;
+        this.agent = agent;
     }
 
     /**
-     * Prompts user for their map selection and calls the appropriate map
-     * constructor. Validates the users input in case they omit the .txt extension.
+     * Plays one game between the {@link GoldCollectorAgent} and a bot on a copy of a map, without
+     * printing any feedback. Used by the benchmark and the tournament, which play many games at once.
+     * @param template the map to copy, left unchanged so it can be used for other games.
+     * @param strategy the bot to play against.
+     * @param turnBudgetMillis the milliseconds a planning bot can spend on each move.
+     * @param maxTurns the number of turns after which the game is stopped.
+     * @param eventBus the bus the events of the game are published to, or null if they are not recorded.
+     * @param distances the result of {@link BotStrategy#measure(Map)} for the template, shared by every game on it.
+     * @return The finished game, with its outcome and number of turns.
+     */
+    public static GameLogic playAutomatedGame(Map template, BotStrategy strategy, long turnBudgetMillis,
+                                              int maxTurns, GameEventBus eventBus, PathDistances distances) {
+        Map map = new Map(template);
+
+        HumanPlayer humanPlayer = new HumanPlayer(map);
+        // games are already played in parallel, so a planning bot only gets one thread
+        BotPlayer bot = strategy.createBot(map, humanPlayer, turnBudgetMillis, 1, distances);
+
+        GameLogic logic = new GameLogic(map, humanPlayer, bot, new GoldCollectorAgent(map, humanPlayer));
+
+        if (eventBus != null) {
+            logic.setEventBus(eventBus);
+        }
+
+        try {
+            logic.runGame(maxTurns);
+        } finally {
+            bot.shutdown();
+        }
+
+        return logic;
+    }
+
+    /**
+     * Reads the maps from the default map directory and the classpath.
+     * @return The loaded registry, which may be empty if the maps could not be read.
+     */
+    private static MapRegistry createDefaultRegistry() {
+        MapRegistry registry = new MapRegistry();
+
+        try {
+            registry.load();
+        } catch (IOException e) {
+            System.err.println("\nError: " + e.getMessage());
+            System.err.println("Cause: " + e.getCause());
+        }
+
+        return registry;
+    }
+
+    /**
+     * Reads a single map without loading the rest of the maps.
+     * @param mapName the name of the file containing the map, or an empty string for the default map.
+     * @return The map, or null if it could not be read.
+     */
+    private static Map readMap(String mapName) {
+        if (mapName.equals("")) {
+            return new Map();
+        }
+
+        return new MapRegistry().loadMap(mapName);
+    }
+
+    /**
+     * Loads the classes used during a game, so that they are ready by the first turn.
+     */
+    private static void preloadClasses() {
+        // class literals, so that renaming a class cannot silently break the list
+        Class<?>[] classes = {
+                HumanPlayer.class,
+                BotPlayer.class,
+                LookaheadBotPlayer.class,
+                GoldCollectorAgent.class,
+                GameState.class,
+                GameOutcome.class
+        };
+
+        for (Class<?> preloaded : classes) {
+            try {
+                Class.forName(preloaded.getName()); // also initialises the class, which the literal does not
+            } catch (ClassNotFoundException e) {
+                System.err.println("\nError: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Prompts user for their map selection and looks the map up in the map
+     * registry. Validates the users input in case they omit the .txt extension.
      * @return The default map if no file is entered, or a map object of the desired map from the given file.
      */
     public Map generateMap() {
         Map generatedMap;
+        String fileName = "";
 
         try {
             reader = new Scanner(System.in);
             System.out.print("Enter map name (enter nothing for the default map): ");
 
-            String fileName = reader.nextLine(); // get the name of the file containing the map
+            fileName = reader.nextLine(); // get the name of the file containing the map
 
             if (!fileName.equals("")) {
                 if (!fileName.endsWith(".txt")) {
                     fileName += ".txt";
                 }
 
-                generatedMap = new Map("./src/main/resources/maps/" + fileName); // generate the map from the file
-
-                System.out.println("\nSuccessfully generated map: " + generatedMap.getMapName());
+                generatedMap = mapRegistry.getMap(fileName); // copy the map read from the file, null if no valid map has that name
             } else {
                 generatedMap = new Map(); // generate default map if no file entered
-
-                System.out.println("\nNo file given, default map generated.");
             }
         } catch (Exception e)  {
-            generatedMap = new Map(); // if the file entered cannot be read properly, generate the default map
+            generatedMap = null;
+        }
+
+        return reportMap(generatedMap, fileName);
+    }
+
+    /**
+     * Tells the user which map the game will be played in.
+     * @param chosenMap the map that was read, or null if it could not be read.
+     * @param fileName the name of the file the map was read from, or an empty string for the default map.
+     * @return The chosen map, or the default map if the chosen map could not be read.
+     */
+    private static Map reportMap(Map chosenMap, String fileName) {
+        if (chosenMap == null) {
+            chosenMap = new Map(); // if the file entered cannot be read properly, generate the default map
 
             System.err.println("\nThere was a problem with the chosen file, default map generated.");
+        } else if (fileName.equals("")) {
+            System.out.println("\nNo file given, default map generated.");
+        } else {
+            System.out.println("\nSuccessfully generated map: " + chosenMap.getMapName());
         }
 
-        System.out.println("Gold required to win: " + generatedMap.getGoldRequired() + "\n");
+        System.out.println("Gold required to win: " + chosenMap.getGoldRequired() + "\n");
 
-        return generatedMap;
+        return chosenMap;
     }
 
     /**
@@ -79,6 +268,55 @@ public class GameLogic {
         return map;
     }
 
+    /**
+     * @return The way the game ended, or null if it has not ended.
+     */
+    public GameOutcome getOutcome() {
+        return outcome;
+    }
+
+    /**
+     * @return The number of turns played so far.
+     */
+    public int getTurns() {
+        return turns;
+    }
+
+    /**
+     * @param verbose whether feedback about each action is printed to the console.
+     */
+    public void setVerbose(boolean verbose) {
+        this.verbose = verbose;
+    }
+
+    /**
+     * @param agent decides the actions of the human player from now on.
+     */
+    public void setPlayerAgent(PlayerAgent agent) {
+        this.agent = agent;
+    }
+
+    /**
+     * Publishes an event for every action in the game from now on.
+     * @param eventBus the bus the events are published to.
+     */
+    public void setEventBus(GameEventBus eventBus) {
+        this.eventBus = eventBus;
+        gameId = eventBus.nextGameId();
+    }
+
+    /**
+     * Publishes an event about a player to the event bus, if there is one.
+     * @param type the type of the event.
+     * @param player the player that performed the action.
+     */
+    private void publish(GameEventType type, Player player) {
+        if (eventBus != null) {
+            eventBus.publish(type, gameId, map.getMapName(), turns, player == bot ? 'B' : 'P',
+                    player.getRow(), player.getColumn(), humanPlayer.getGold());
+        }
+    }
+
     /**
      * @return If the game is running.
      */
@@ -122,8 +360,10 @@ public class GameLogic {
                 player.setRow(previousRow);
                 player.setColumn(previousColumn);
 
+                publish(GameEventType.MOVE_FAIL, player);
                 return "Fail\n";
             } else {
+                publish(GameEventType.MOVE_SUCCESS, player);
                 return "Success\n";
             }
         } catch (ArrayIndexOutOfBoundsException e) {
@@ -132,6 +372,7 @@ public class GameLogic {
             player.setRow(previousRow);
             player.setColumn(previousColumn);
 
+            publish(GameEventType.MOVE_FAIL, player);
             return "Fail\n";
         }
     }
@@ -147,8 +388,10 @@ public class GameLogic {
             // remove the gold from the map if the pickup is successful
             map.changeCharacter(humanPlayer.getRow(), humanPlayer.getColumn(), '.');
             humanPlayer.incrementGold();
+            publish(GameEventType.PICKUP_SUCCESS, humanPlayer);
             return "Success. Gold owned:" + gold();
         } else {
+            publish(GameEventType.PICKUP_FAIL, humanPlayer);
             return "Fail. Gold owned: " + gold();
         }
     }
@@ -197,19 +440,34 @@ public class GameLogic {
     protected String exit() {
         char characterUnderPlayer = map.getMap()[humanPlayer.getRow()][humanPlayer.getColumn()];
         if (humanPlayer.getGold() >= map.getGoldRequired() && characterUnderPlayer == 'E') {
+            publish(GameEventType.WIN, humanPlayer);
             return "WIN\nCongratulations you collected enough gold to escape the dungeon.";
         } else {
+            publish(GameEventType.LOSE, humanPlayer);
             return "LOSE";
         }
     }
 
     /**
-     * Quits the game, shutting down the program.
+     * Quits the game, ending the game loop.
+     * @param outcome the way the game ended.
      * @param message the message displayed when the game quits.
      */
-    protected void quitGame(String message) {
-        System.out.println("\n" + message + "\n");
-        System.exit(0);
+    protected void quitGame(GameOutcome outcome, String message) {
+        this.outcome = outcome;
+        running = false;
+
+        display("\n" + message + "\n");
+    }
+
+    /**
+     * Prints a message to the console, unless the game is not verbose.
+     * @param message the message to print.
+     */
+    private void display(String message) {
+        if (verbose) {
+            System.out.println(message);
+        }
     }
 
     /**
@@ -218,19 +476,20 @@ public class GameLogic {
      */
     protected void processAction(String action) {
         if (action.equals("HELLO")) {
-            System.out.println("\nGold to win: " + hello() + "\n");
+            display("\nGold to win: " + hello() + "\n");
         } else if (action.equals("GOLD")) {
-            System.out.println("\nGold owned: " + gold() + "\n");
+            display("\nGold owned: " + gold() + "\n");
         } else if (action.contains("MOVE ")) {
-            System.out.println("\n" + move(humanPlayer, action.charAt(action.length() - 1)));
+            display("\n" + move(humanPlayer, action.charAt(action.length() - 1)));
         } else if (action.equals("PICKUP")) {
-            System.out.println("\n" + pickup() + "\n");
+            display("\n" + pickup() + "\n");
         } else if (action.equals("LOOK")) {
-            System.out.println("\n" + look(humanPlayer));
+            display("\n" + look(humanPlayer));
         } else if (action.equals("EXIT")) {
-            quitGame(exit());
+            String result = exit();
+            quitGame(result.startsWith("WIN") ? GameOutcome.WIN : GameOutcome.LOSE, result);
         } else if (action.equals("Invalid")) {
-            System.out.println("\n" + action + "\n");
+            display("\n" + action + "\n");
         }
     }
 
@@ -239,33 +498,66 @@ public class GameLogic {
      * perform the appropriate action based on the users input.
      */
     public void runGame() {
+        runGame(Integer.MAX_VALUE);
+
+        bot.shutdown();
+
+        if (reader != null) {
+            reader.close();
+        }
+    }
+
+    /**
+     * Game loop that plays turns until the game ends or the turn limit is reached.
+     * @param maxTurns the number of turns after which the game is stopped.
+     * @return The way the game ended.
+     */
+    public GameOutcome runGame(int maxTurns) {
         running = true;
 
-        String input;
         while (gameRunning()) {
-            // get the player's command and process it
-            input = humanPlayer.getNextAction();
-            processAction(input);
-
-            if (bot.getMapRequired()) {
-                // if the bot neds to update its map, call the look command for the bot, otherwise, move the bot
-                bot.updateVisibleMap(look(bot));
-            } else {
-                move(bot, '0'); // '0' passed as direction as it is not required by the bot
+            if (turns >= maxTurns) {
+                quitGame(GameOutcome.TURN_LIMIT, "Turn limit reached.");
+                break;
             }
 
-            bot.toggleMapRequired();
+            playTurn();
+        }
 
-            // end the game if the bot catches the player
-            if (bot.getRow() == humanPlayer.getRow() && bot.getColumn() == humanPlayer.getColumn()) {
-                quitGame("You were caught by the bot, you lose.");
-            }
+        return outcome;
+    }
+
+    /**
+     * Plays a single turn, the player's action followed by the bot's action.
+     */
+    protected void playTurn() {
+        turns++;
+
+        // get the player's command and process it
+        String input = agent.getNextAction();
+        processAction(input);
+
+        if (!gameRunning()) {
+            return; // the player exited the game
         }
 
-        // uncomment to print the map with both players after each turn
-        //map.printMap(humanPlayer.getRow(), humanPlayer.getColumn(), bot.getRow(), bot.getColumn());
+        if (bot.getMapRequired()) {
+            // if the bot neds to update its map, call the look command for the bot, otherwise, move the bot
+            bot.updateVisibleMap(look(bot));
+        } else {
+            move(bot, '0'); // '0' passed as direction as it is not required by the bot
+        }
 
-        reader.close();
+        bot.toggleMapRequired();
+
+        // end the game if the bot catches the player
+        if (bot.getRow() == humanPlayer.getRow() && bot.getColumn() == humanPlayer.getColumn()) {
+            publish(GameEventType.CAUGHT, bot);
+            quitGame(GameOutcome.CAUGHT, "You were caught by the bot, you lose.");
+        }
+
+        // uncomment to print the map with both players after each turn
+        //printMap(humanPlayer.getRow(), humanPlayer.getColumn(), bot.getRow(), bot.getColumn());
     }
 
     /**
@@ -291,8 +583,52 @@ public class GameLogic {
         }
     }
 
+    /**
+     * Starts the game, asking the user for a map if no command line options are given.
+     * See {@link LaunchOptions} for the available options.
+     * @param args the command line options.
+     */
     public static void main(String[] args) {
-        GameLogic logic = new GameLogic();
+        if (args.length == 0) {
+            GameLogic logic = new GameLogic();
+
+            logic.runGame();
+            return;
+        }
+
+        long mainStarted = System.nanoTime();
+
+        LaunchOptions options;
+        try {
+            options = new LaunchOptions(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Error: " + e.getMessage());
+            System.exit(1);
+            return;
+        }
+
+        // start reading the map straight away, the rest of the startup is done while it is read
+        // (an anonymous class rather than a lambda, as creating the first lambda slows down startup)
+        FutureTask<Map> pendingMap = new FutureTask<Map>(new Callable<Map>() {
+            @Override
+            public Map call() {
+                return readMap(options.getMapName());
+            }
+        });
+        new Thread(pendingMap, "map-loader").start();
+
+        GameLogic logic = new GameLogic(options, pendingMap);
+
+        if (options.isTiming()) {
+            long firstTurn = System.currentTimeMillis();
+            long inMain = (System.nanoTime() - mainStarted) / 1_000_000;
+
+            // the management classes are only loaded after the time is taken, so they do not affect it
+            long sinceStart = firstTurn - ManagementFactory.getRuntimeMXBean().getStartTime();
+
+            System.err.println("Time to first turn: " + sinceStart + " ms since the program started ("
+                    + inMain + " ms in main)");
+        }
 
         logic.runGame();
     }
@@ -0,0 +1,13 @@
+package terminal.game.main;
+
+/**
+ * The ways that a game can end.
+ */
+public enum GameOutcome {
+
+    WIN, // the player exited with enough gold
+    LOSE, // the player exited without enough gold or not on an exit tile
+    CAUGHT, // the bot caught the player
+    TURN_LIMIT // the game was stopped after too many turns, only used for automated games
+
+}
@@ -0,0 +1,98 @@
+package terminal.game.main;
+
+import terminal.game.entity.BotStrategy;
+
+/**
+ * Options for starting a game from the command line instead of answering the map prompt.
+ * <br></br>
+ * Options:
+ * <ul>
+ *     <li>--map NAME: the map to play in (default map if not given).</li>
+ *     <li>--bot GREEDY|LOOKAHEAD: the bot to play against (default GREEDY).</li>
+ *     <li>--agent HUMAN|AUTO: whether the commands are typed or chosen by the {@link terminal.game.entity.GoldCollectorAgent} (default HUMAN).</li>
+ *     <li>--timing: print the time from the program starting to the first turn.</li>
+ * </ul>
+ */
+public class LaunchOptions {
+
+    private String mapName = "";
+    private BotStrategy strategy = BotStrategy.GREEDY;
+    private boolean automated = false;
+    private boolean timing = false;
+
+    /**
+     * Reads the options from the command line arguments.
+     * @param args the command line arguments.
+     */
+    public LaunchOptions(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--map": mapName = value(args, ++i);
+                              break;
+
+                case "--bot": strategy = BotStrategy.fromName(value(args, ++i));
+                              break;
+
+                case "--agent": automated = isAutomated(value(args, ++i));
+                                break;
+
+                case "--timing": timing = true;
+                                 break;
+
+                default: throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+    }
+
+    /**
+     * @return The value following an option.
+     */
+    private static String value(String[] args, int index) {
+        if (index >= args.length) {
+            throw new IllegalArgumentException("Missing value for option: " + args[index - 1]);
+        }
+
+        return args[index];
+    }
+
+    /**
+     * @return If the value of the --agent option chooses the automatic agent.
+     * @throws IllegalArgumentException if the value is not HUMAN or AUTO.
+     */
+    private static boolean isAutomated(String agent) {
+        switch (agent.toUpperCase()) {
+            case "HUMAN": return false;
+            case "AUTO": return true;
+            default: throw new IllegalArgumentException("Unknown agent: " + agent);
+        }
+    }
+
+    /**
+     * @return The name of the map to play in, or an empty string for the default map.
+     */
+    public String getMapName() {
+        return mapName;
+    }
+
+    /**
+     * @return The bot to play against.
+     */
+    public BotStrategy getStrategy() {
+        return strategy;
+    }
+
+    /**
+     * @return If the player's commands are chosen automatically instead of typed.
+     */
+    public boolean isAutomated() {
+        return automated;
+    }
+
+    /**
+     * @return If the time taken to reach the first turn should be printed.
+     */
+    public boolean isTiming() {
+        return timing;
+    }
+
+}
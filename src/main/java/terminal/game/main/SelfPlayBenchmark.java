@@ -0,0 +1,181 @@
+package terminal.game.main;
+
+import java.nio.file.Paths;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import terminal.game.entity.BotStrategy;
+import terminal.game.entity.GoldCollectorAgent;
+import terminal.game.entity.PathDistances;
+import terminal.game.event.BinaryLogSink;
+import terminal.game.event.EventAggregator;
+import terminal.game.event.GameEventBus;
+import terminal.game.event.GameEventType;
+import terminal.game.map.Map;
+import terminal.game.map.MapRegistry;
+
+/**
+ * Plays many games between the {@link GoldCollectorAgent} and a bot, then reports how often the
+ * agent wins and how fast the games run. Used to measure the effect of changes to the bots.
+ * <br></br>
+ * Options:
+ * <ul>
+ *     <li>--games N: the number of games to play (default 1000).</li>
+ *     <li>--map NAME: the map to play in (default map if not given).</li>
+ *     <li>--bot GREEDY|LOOKAHEAD: the bot to play against (default GREEDY).</li>
+ *     <li>--threads N: the number of games played at the same time (default one per core).</li>
+ *     <li>--max-turns N: the number of turns after which a game is stopped (default 1000).</li>
+ *     <li>--budget N: the milliseconds a planning bot can spend on each move (default 5).</li>
+ *     <li>--events DIR: write every game event to binary logs in the directory (not written by default).</li>
+ * </ul>
+ */
+public class SelfPlayBenchmark {
+
+    private final int games;
+    private final String mapName;
+    private final BotStrategy strategy;
+    private final int threads;
+    private final int maxTurns;
+    private final long turnBudgetMillis;
+    private final String eventDirectory;
+
+    private PathDistances distances; // measured once and shared by every game
+
+    private GameEventBus eventBus;
+    private EventAggregator aggregator;
+
+    // results, added to by every game thread
+    private final LongAdder wins = new LongAdder();
+    private final LongAdder losses = new LongAdder();
+    private final LongAdder catches = new LongAdder();
+    private final LongAdder unfinished = new LongAdder();
+    private final LongAdder turnsToWin = new LongAdder();
+    private final LongAdder totalTurns = new LongAdder();
+
+    /**
+     * Reads the options from the command line arguments.
+     * @param args the command line arguments.
+     */
+    public SelfPlayBenchmark(String[] args) {
+        CommandLineOptions options = new CommandLineOptions(args, "--games", "--map", "--bot", "--threads",
+                "--max-turns", "--budget", "--events");
+
+        games = options.getInt("--games", 1000);
+        mapName = options.getString("--map", "");
+        strategy = BotStrategy.fromName(options.getString("--bot", "GREEDY"));
+        threads = options.getInt("--threads", Runtime.getRuntime().availableProcessors());
+        maxTurns = options.getInt("--max-turns", 1000);
+        turnBudgetMillis = options.getLong("--budget", 5);
+        eventDirectory = options.getString("--events", "");
+    }
+
+    /**
+     * Plays all of the games and prints the results.
+     * @throws Exception if the map cannot be read.
+     */
+    public void run() throws Exception {
+        Map template = loadMap();
+        distances = strategy.measure(template);
+
+        if (!eventDirectory.equals("")) {
+            aggregator = new EventAggregator();
+            eventBus = new GameEventBus(new BinaryLogSink(Paths.get(eventDirectory)), aggregator);
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+
+        long start = System.nanoTime();
+
+        for (int i = 0; i < games; i++) {
+            pool.execute(() -> playGame(template));
+        }
+
+        pool.shutdown();
+        pool.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        if (eventBus != null) {
+            eventBus.close();
+        }
+
+        System.out.println("Map: " + template.getMapName() + ", bot: " + strategy + ", threads: " + threads);
+        System.out.println("Games played: " + games);
+        System.out.println("Wins: " + wins + ", losses: " + losses + ", caught: " + catches
+                + ", turn limit: " + unfinished);
+        System.out.printf("Win rate: %.1f%%%n", 100.0 * wins.sum() / games);
+
+        if (wins.sum() > 0) {
+            System.out.printf("Average turns to win: %.1f%n", turnsToWin.sum() / (double) wins.sum());
+        }
+
+        System.out.printf("Turns per second: %.0f (%.0f games per second)%n",
+                totalTurns.sum() / seconds, games / seconds);
+
+        if (eventBus != null) {
+            System.out.println("Events logged: " + eventBus.getPublishedCount() + ", dropped: "
+                    + eventBus.getDroppedCount() + ", written to " + eventDirectory);
+            System.out.printf("Average turn of gold pickup: %.1f%n", aggregator.getAveragePickupTurn());
+            System.out.println("Catches recorded: " + aggregator.getCount(GameEventType.CAUGHT));
+        }
+    }
+
+    /**
+     * @return The map named in the options, or the default map if no name was given.
+     * @throws Exception if the map cannot be read.
+     */
+    private Map loadMap() throws Exception {
+        if (mapName.equals("")) {
+            return new Map();
+        }
+
+        MapRegistry registry = new MapRegistry();
+        registry.load();
+
+        Map map = registry.getMap(mapName);
+        if (map == null) {
+            throw new IllegalArgumentException("No valid map named " + mapName);
+        }
+
+        return map;
+    }
+
+    /**
+     * Plays a single game on a copy of the map and records the result.
+     * @param template the map to copy.
+     */
+    private void playGame(Map template) {
+        GameLogic logic = GameLogic.playAutomatedGame(template, strategy, turnBudgetMillis, maxTurns, eventBus,
+                distances);
+
+        totalTurns.add(logic.getTurns());
+
+        switch (logic.getOutcome()) {
+            case WIN: wins.increment();
+                      turnsToWin.add(logic.getTurns());
+                      break;
+
+            case LOSE: losses.increment();
+                       break;
+
+            case CAUGHT: catches.increment();
+                         break;
+
+            default: unfinished.increment();
+                     break;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        try {
+            new SelfPlayBenchmark(args).run();
+        } catch (IllegalArgumentException e) {
+            // a mistake in the options, e.g. an unknown bot or map
+            System.err.println("Error: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+}
@@ -0,0 +1,514 @@
+package terminal.game.main;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import terminal.game.entity.BotStrategy;
+import terminal.game.entity.GoldCollectorAgent;
+import terminal.game.entity.PathDistances;
+import terminal.game.map.Map;
+import terminal.game.map.MapGenerator;
+import terminal.game.map.MapRegistry;
+
+/**
+ * Compares bot strategies by playing every strategy on every map a number of times against the
+ * {@link GoldCollectorAgent}, then reporting how often each strategy catches the player and how
+ * long it takes, with 95% confidence intervals.
+ * <br></br>
+ * Matches are played on a work-stealing pool and each result is written to the results file as soon
+ * as the match ends. If the tournament is stopped and started again with the same results file, the
+ * matches already in the file are not played again. The turn limit and budget are written at the top
+ * of the file, and a file written with different values cannot be resumed.
+ * <br></br>
+ * Options:
+ * <ul>
+ *     <li>--bots LIST: comma separated strategies, e.g. GREEDY,LOOKAHEAD (default all strategies).</li>
+ *     <li>--maps LIST: comma separated map names (default small_map,medium_map,large_map).</li>
+ *     <li>--seeds LIST: comma separated seeds or ranges of seeds for random maps, e.g. 1-20,50.</li>
+ *     <li>--games N: the number of matches for each strategy and map (default 100).</li>
+ *     <li>--threads N: the number of matches played at the same time (default one per core).</li>
+ *     <li>--max-turns N: the number of turns after which a match is stopped (default 1000).</li>
+ *     <li>--budget N: the milliseconds a planning bot can spend on each move (default 5).</li>
+ *     <li>--results FILE: the file results are written to and resumed from (default tournament-results.csv).</li>
+ * </ul>
+ */
+public class Tournament {
+
+    private static final String RESULTS_HEADER = "match,bot,map,game,outcome,turns";
+    private static final String SETTINGS_PREFIX = "# ";
+
+    private static final long PROGRESS_INTERVAL_SECONDS = 2;
+
+    private final List<BotStrategy> strategies = new ArrayList<BotStrategy>();
+    private final List<String> mapNames = new ArrayList<String>(); // map file names, or "seed:N" for random maps
+    private final int games;
+    private final int threads;
+    private final int maxTurns;
+    private final long turnBudgetMillis;
+    private final Path resultsFile;
+
+    private final java.util.Map<String, Map> templates = new LinkedHashMap<String, Map>();
+
+    // path distances of each map for each strategy, measured once and shared by every match
+    private final java.util.Map<String, PathDistances> distances = new HashMap<String, PathDistances>();
+
+    // results of every match, including those read from the results file, by strategy and map name
+    private final java.util.Map<String, Summary> summaries = new ConcurrentHashMap<String, Summary>();
+
+    private BufferedWriter writer;
+
+    private final AtomicLong matchesPlayed = new AtomicLong();
+
+    /**
+     * Reads the options from the command line arguments.
+     * @param args the command line arguments.
+     */
+    public Tournament(String[] args) {
+        CommandLineOptions options = new CommandLineOptions(args, "--bots", "--maps", "--seeds", "--games",
+                "--threads", "--max-turns", "--budget", "--results");
+
+        if (options.has("--bots")) {
+            for (String name : options.getString("--bots", "").split(",")) {
+                strategies.add(BotStrategy.fromName(name));
+            }
+        }
+
+        if (options.has("--maps")) {
+            for (String name : options.getString("--maps", "").split(",")) {
+                mapNames.add(name.trim());
+            }
+        }
+
+        if (options.has("--seeds")) {
+            addSeeds(options.getString("--seeds", ""));
+        }
+
+        games = options.getInt("--games", 100);
+        threads = options.getInt("--threads", Runtime.getRuntime().availableProcessors());
+        maxTurns = options.getInt("--max-turns", 1000);
+        turnBudgetMillis = options.getLong("--budget", 5);
+        resultsFile = Paths.get(options.getString("--results", "tournament-results.csv"));
+
+        if (strategies.isEmpty()) {
+            for (BotStrategy strategy : BotStrategy.values()) {
+                strategies.add(strategy);
+            }
+        }
+
+        if (mapNames.isEmpty()) {
+            mapNames.add("small_map");
+            mapNames.add("medium_map");
+            mapNames.add("large_map");
+        }
+    }
+
+    /**
+     * Adds random maps for a list of seeds and ranges of seeds, e.g. "1-20,50".
+     */
+    private void addSeeds(String value) {
+        for (String part : value.split(",")) {
+            String[] range = part.trim().split("-");
+            long first = Long.parseLong(range[0]);
+            long last = range.length > 1 ? Long.parseLong(range[1]) : first;
+
+            for (long seed = first; seed <= last; seed++) {
+                mapNames.add("seed:" + seed);
+            }
+        }
+    }
+
+    /**
+     * Plays every match that is not already in the results file, then prints the results.
+     * @throws Exception if a map or the results file cannot be read.
+     */
+    public void run() throws Exception {
+        loadMaps();
+
+        List<String[]> scheduled = new ArrayList<String[]>();
+        Set<String> scheduledKeys = new HashSet<String>();
+        for (BotStrategy strategy : strategies) {
+            for (String mapName : mapNames) {
+                for (int game = 1; game <= games; game++) {
+                    String key = matchKey(strategy, mapName, game);
+                    scheduled.add(new String[] {key, strategy.name(), mapName, String.valueOf(game)});
+                    scheduledKeys.add(key);
+                }
+            }
+        }
+
+        Set<String> finished = readResults(scheduledKeys);
+
+        List<String[]> matches = new ArrayList<String[]>();
+        for (String[] match : scheduled) {
+            if (!finished.contains(match[0])) {
+                matches.add(match);
+            }
+        }
+
+        int total = scheduled.size();
+        System.out.println("Matches: " + total + ", already played: " + (total - matches.size())
+                + ", to play: " + matches.size() + ", threads: " + threads);
+
+        openResults();
+
+        ExecutorService pool = Executors.newWorkStealingPool(threads);
+        ScheduledExecutorService progress = Executors.newSingleThreadScheduledExecutor();
+
+        long start = System.nanoTime();
+        progress.scheduleAtFixedRate(() -> printProgress(matches.size(), start),
+                PROGRESS_INTERVAL_SECONDS, PROGRESS_INTERVAL_SECONDS, TimeUnit.SECONDS);
+
+        for (String[] match : matches) {
+            pool.execute(() -> playMatch(match[0], BotStrategy.valueOf(match[1]), match[2], Integer.parseInt(match[3])));
+        }
+
+        pool.shutdown();
+        pool.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+
+        progress.shutdownNow();
+        printProgress(matches.size(), start);
+
+        writer.close();
+
+        printResults();
+    }
+
+    /**
+     * Reads the named maps, generates the random maps and measures their path distances, once for the whole tournament.
+     * @throws Exception if a named map cannot be read.
+     */
+    private void loadMaps() throws Exception {
+        MapRegistry registry = new MapRegistry();
+        registry.load();
+
+        for (String mapName : mapNames) {
+            if (mapName.startsWith("seed:")) {
+                templates.put(mapName, MapGenerator.generate(Long.parseLong(mapName.substring(5))));
+            } else {
+                Map map = registry.getMap(mapName);
+                if (map == null) {
+                    throw new IllegalArgumentException("No valid map named " + mapName);
+                }
+
+                templates.put(mapName, map);
+            }
+
+            for (BotStrategy strategy : strategies) {
+                distances.put(strategy.name() + "/" + mapName, strategy.measure(templates.get(mapName)));
+            }
+        }
+    }
+
+    /**
+     * @return The name that identifies a match in the results file.
+     */
+    private static String matchKey(BotStrategy strategy, String mapName, int game) {
+        return strategy.name() + "/" + mapName + "/" + game;
+    }
+
+    /**
+     * @return The line written after the header, recording the settings that change the result of a match.
+     */
+    private String settingsLine() {
+        return SETTINGS_PREFIX + "max-turns=" + maxTurns + ",budget=" + turnBudgetMillis;
+    }
+
+    /**
+     * Reads the results of matches played before the tournament was stopped, adding them to the summaries.
+     * Only matches in the current schedule are counted. A last line without a line break was only partly
+     * written, so it is ignored and that match is played again.
+     * @param scheduledKeys the keys of the matches the tournament is made of.
+     * @return The keys of the scheduled matches already played.
+     * @throws IOException if the results file cannot be read.
+     * @throws IllegalArgumentException if the file was written with different settings.
+     */
+    private Set<String> readResults(Set<String> scheduledKeys) throws IOException {
+        Set<String> finished = new HashSet<String>();
+
+        if (!Files.exists(resultsFile) || Files.size(resultsFile) == 0) {
+            return finished;
+        }
+
+        List<String> lines = Files.readAllLines(resultsFile, StandardCharsets.UTF_8);
+        if (lastByte(resultsFile) != '\n') {
+            lines.remove(lines.size() - 1);
+        }
+
+        // results played with a different turn limit or budget cannot be compared with new ones
+        if (lines.size() < 2 || !lines.get(0).equals(RESULTS_HEADER) || !lines.get(1).equals(settingsLine())) {
+            throw new IllegalArgumentException("The results in " + resultsFile + " were not played with "
+                    + settingsLine().substring(SETTINGS_PREFIX.length()) + ", use another results file");
+        }
+
+        for (String line : lines.subList(2, lines.size())) {
+            String[] fields = line.split(",");
+
+            if (fields.length != 6 || !scheduledKeys.contains(fields[0])) {
+                continue;
+            }
+
+            try {
+                GameOutcome outcome = GameOutcome.valueOf(fields[4]);
+                int turns = Integer.parseInt(fields[5]);
+
+                if (finished.add(fields[0])) {
+                    summary(fields[1], fields[2]).add(outcome, turns);
+                }
+            } catch (IllegalArgumentException e) {
+                // line damaged by an earlier cut off write
+            }
+        }
+
+        return finished;
+    }
+
+    /**
+     * Opens the results file for appending, writing the header and settings if the file is new.
+     * @throws IOException if the file cannot be opened.
+     */
+    private void openResults() throws IOException {
+        boolean newFile = !Files.exists(resultsFile) || Files.size(resultsFile) == 0;
+
+        if (!newFile && lastByte(resultsFile) != '\n') {
+            removePartialLine(resultsFile); // otherwise the next result would complete the cut off line
+        }
+
+        writer = Files.newBufferedWriter(resultsFile, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+
+        if (newFile) {
+            writer.write(RESULTS_HEADER);
+            writer.newLine();
+            writer.write(settingsLine());
+            writer.newLine();
+        }
+
+        writer.flush();
+    }
+
+    /**
+     * Removes everything after the last line break of a file.
+     */
+    private static void removePartialLine(Path file) throws IOException {
+        try (RandomAccessFile output = new RandomAccessFile(file.toFile(), "rw")) {
+            long length = output.length();
+
+            while (length > 0) {
+                output.seek(length - 1);
+                if (output.read() == '\n') {
+                    break;
+                }
+
+                length--;
+            }
+
+            output.setLength(length);
+        }
+    }
+
+    /**
+     * @return The last byte of a file.
+     */
+    private static int lastByte(Path file) throws IOException {
+        try (RandomAccessFile input = new RandomAccessFile(file.toFile(), "r")) {
+            input.seek(input.length() - 1);
+            return input.read();
+        }
+    }
+
+    /**
+     * Plays a single match on a copy of its map, then records and writes the result.
+     */
+    private void playMatch(String key, BotStrategy strategy, String mapName, int game) {
+        GameLogic logic = GameLogic.playAutomatedGame(templates.get(mapName), strategy, turnBudgetMillis, maxTurns, null,
+                distances.get(strategy.name() + "/" + mapName));
+
+        summary(strategy.name(), mapName).add(logic.getOutcome(), logic.getTurns());
+        writeResult(key + "," + strategy.name() + "," + mapName + "," + game + "," + logic.getOutcome() + ","
+                + logic.getTurns());
+
+        matchesPlayed.incrementAndGet();
+    }
+
+    /**
+     * Writes a line to the results file straight away, so it is kept if the tournament is stopped.
+     */
+    private synchronized void writeResult(String line) {
+        try {
+            writer.write(line);
+            writer.newLine();
+            writer.flush();
+        } catch (IOException e) {
+            System.err.println("\nError: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Prints the number of matches played so far and how fast they are being played.
+     */
+    private void printProgress(int toPlay, long start) {
+        long played = matchesPlayed.get();
+        double seconds = (System.nanoTime() - start) / 1e9;
+        double rate = played / seconds;
+
+        String remaining = rate > 0 ? String.format("%.0fs", (toPlay - played) / rate) : "unknown";
+
+        System.out.printf("Progress: %d/%d matches (%.1f%%), %.1f matches per second, time remaining: %s%n",
+                played, toPlay, toPlay == 0 ? 100.0 : 100.0 * played / toPlay, rate, remaining);
+    }
+
+    /**
+     * Prints the results for each strategy on each map, then for each strategy over all maps.
+     */
+    private void printResults() {
+        System.out.println();
+        System.out.println("Catch rate is the share of matches the bot won, catch time is the average turn of a catch.");
+        System.out.println("Both are shown with 95% confidence intervals.");
+
+        for (BotStrategy strategy : strategies) {
+            System.out.println();
+            System.out.println(strategy + ":");
+
+            Summary overall = new Summary();
+            for (String mapName : mapNames) {
+                Summary summary = summary(strategy.name(), mapName);
+                overall.addAll(summary);
+
+                System.out.println("    " + describeMap(mapName) + ": " + summary);
+            }
+
+            System.out.println("    All maps: " + overall);
+        }
+    }
+
+    /**
+     * @return The map name as given in the options, with the name of the map inside it.
+     */
+    private String describeMap(String mapName) {
+        return mapName + " (" + templates.get(mapName).getMapName() + ")";
+    }
+
+    /**
+     * @return The summary of the matches of a strategy on a map, created if there is none yet.
+     */
+    private Summary summary(String strategy, String mapName) {
+        return summaries.computeIfAbsent(strategy + "/" + mapName, key -> new Summary());
+    }
+
+    /**
+     * Running totals for a set of matches, from which the catch rate and catch time are calculated.
+     */
+    private static class Summary {
+
+        // two-sided 95% critical values of Student's t distribution for 1 to 30 degrees of freedom
+        private static final double[] T_VALUES = {
+                12.706, 4.303, 3.182, 2.776, 2.571, 2.447, 2.365, 2.306, 2.262, 2.228,
+                2.201, 2.179, 2.160, 2.145, 2.131, 2.120, 2.110, 2.101, 2.093, 2.086,
+                2.080, 2.074, 2.069, 2.064, 2.060, 2.056, 2.052, 2.048, 2.045, 2.042
+        };
+
+        private long matches;
+        private long catches;
+        private long catchTurns;
+        private double catchTurnSquares; // sum of the squares of the catch turns, for the standard deviation
+
+        synchronized void add(GameOutcome outcome, int turns) {
+            matches++;
+
+            if (outcome == GameOutcome.CAUGHT) {
+                catches++;
+                catchTurns += turns;
+                catchTurnSquares += (double) turns * turns;
+            }
+        }
+
+        synchronized void addAll(Summary other) {
+            matches += other.matches;
+            catches += other.catches;
+            catchTurns += other.catchTurns;
+            catchTurnSquares += other.catchTurnSquares;
+        }
+
+        /**
+         * @return The catch rate with its Wilson score interval, and the mean catch time with its
+         * Student's t interval, which is too wide rather than too narrow when there are few catches.
+         */
+        @Override
+        public synchronized String toString() {
+            if (matches == 0) {
+                return "no matches";
+            }
+
+            double z = 1.96;
+            double rate = catches / (double) matches;
+
+            double centre = (rate + z * z / (2 * matches)) / (1 + z * z / matches);
+            double margin = z * Math.sqrt(rate * (1 - rate) / matches + z * z / (4.0 * matches * matches))
+                    / (1 + z * z / matches);
+
+            String result = String.format("%d matches, catch rate %.1f%% [%.1f%%, %.1f%%]", matches,
+                    100 * rate, 100 * (centre - margin), 100 * (centre + margin));
+
+            if (catches > 0) {
+                double mean = catchTurns / (double) catches;
+                result += String.format(", catch time %.1f turns ", mean);
+
+                if (catches < 2) {
+                    result += "[n/a]"; // one catch says nothing about how much catch times vary
+                } else {
+                    double variance = Math.max(0, (catchTurnSquares - catches * mean * mean) / (catches - 1));
+                    double error = tValue(catches - 1) * Math.sqrt(variance / catches);
+
+                    // a catch always takes at least one turn
+                    result += String.format("[%.1f, %.1f]", Math.max(1, mean - error), mean + error);
+                }
+            }
+
+            return result;
+        }
+
+        /**
+         * @return The two-sided 95% critical value of Student's t distribution.
+         * @param degreesOfFreedom the number of samples minus one, at least 1.
+         */
+        static double tValue(long degreesOfFreedom) {
+            if (degreesOfFreedom <= T_VALUES.length) {
+                return T_VALUES[(int) degreesOfFreedom - 1];
+            }
+
+            // Cornish-Fisher expansion around the normal value, within 0.001 of the exact value beyond the table
+            double z = 1.96;
+            double n = degreesOfFreedom;
+            return z + (z * z * z + z) / (4 * n) + (5 * Math.pow(z, 5) + 16 * z * z * z + 3 * z) / (96 * n * n);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        try {
+            new Tournament(args).run();
+        } catch (IllegalArgumentException e) {
+            // a mistake in the options, e.g. an unknown bot or map
+            System.err.println("Error: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+}
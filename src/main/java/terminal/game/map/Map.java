@@ -42,6 +42,48 @@ public class Map {
         readMap(fileName);
     }
 
+    /**
+     * Constructor that reads the map from an already open reader, e.g. a file on the classpath.
+     * The reader is not closed.
+     * @param reader the reader containing the map.
+     * @throws Exception
+     */
+    public Map(BufferedReader reader) throws Exception {
+        readMap(reader);
+    }
+
+    /**
+     * Constructor for a map that has already been created, e.g. by the {@link MapGenerator}.
+     * @param mapName the name of the map.
+     * @param goldRequired the gold required to win.
+     * @param map the tiles of the map, used directly rather than copied.
+     * @throws Exception if the map cannot be played fairly.
+     */
+    public Map(String mapName, int goldRequired, char[][] map) throws Exception {
+        this.mapName = mapName;
+        this.goldRequired = goldRequired;
+        this.map = map;
+
+        if (!isMapValid()) {
+            throw new Exception();
+        }
+    }
+
+    /**
+     * Copy constructor, creates a map with its own copy of the tiles so that a game can
+     * change it (e.g. by picking up gold) without affecting the original.
+     * @param other the map to copy.
+     */
+    public Map(Map other) {
+        mapName = other.mapName;
+        goldRequired = other.goldRequired;
+
+        map = new char[other.map.length][];
+        for (int i = 0; i < map.length; i++) {
+            map[i] = other.map[i].clone();
+        }
+    }
+
     /**
      * @return Gold required to exit the current map.
      */
@@ -93,8 +135,17 @@ public class Map {
      * @throws Exception
      */
     protected void readMap(String fileName) throws Exception {
-        BufferedReader br = new BufferedReader(new FileReader(fileName));
+        try (BufferedReader br = new BufferedReader(new FileReader(fileName))) {
+            readMap(br);
+        }
+    }
 
+    /**
+     * Reads the map from a reader.
+     * @param br reader containing the map to be read.
+     * @throws Exception
+     */
+    protected void readMap(BufferedReader br) throws Exception {
         // gets the name and gold required from the file and assigns it the the respective fields
         mapName = br.readLine().split("name ")[1];
         goldRequired = Integer.parseInt(br.readLine().split("win ")[1]);
@@ -114,8 +165,6 @@ public class Map {
             map[i] = rowArrayList.get(i).toCharArray();
         }
 
-        br.close();
-
         // throw an exception if the map cannot be played fairly, so that the default map is generated in
         // the GameLogic class if the user attempts to play a map that cannot be won
         if (!isMapValid()) {
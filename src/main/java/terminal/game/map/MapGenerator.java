@@ -0,0 +1,128 @@
+package terminal.game.map;
+
+import java.util.Random;
+
+/**
+ * Creates random maps from a seed, so that bots can be compared on many different maps
+ * without writing each one by hand. The same seed always creates the same map.
+ */
+public class MapGenerator {
+
+    private static final double WALL_CHANCE = 0.12; // chance of each inner tile being a wall
+
+    /**
+     * Private constructor, the generator only has static methods.
+     */
+    private MapGenerator() {
+    }
+
+    /**
+     * Creates a rectangular map surrounded by walls, with some walls inside, between 2 and 5 gold
+     * required to win, a little more gold than required and one or two exits. Every tile that is
+     * not a wall can be reached from every other.
+     * @param seed the seed of the random map.
+     * @return The map created from the seed.
+     */
+    public static Map generate(long seed) {
+        Random random = new Random(seed);
+
+        while (true) {
+            int rows = 8 + random.nextInt(9);
+            int columns = 15 + random.nextInt(26);
+            int goldRequired = 2 + random.nextInt(4);
+
+            char[][] tiles = new char[rows][columns];
+
+            for (int i = 0; i < rows; i++) {
+                for (int j = 0; j < columns; j++) {
+                    boolean border = i == 0 || j == 0 || i == rows - 1 || j == columns - 1;
+                    tiles[i][j] = border || random.nextDouble() < WALL_CHANCE ? '#' : '.';
+                }
+            }
+
+            placeTiles(tiles, 'G', goldRequired + random.nextInt(3), random);
+            placeTiles(tiles, 'E', 1 + random.nextInt(2), random);
+
+            // walls may have cut some gold or exits off, try again with the next random values if so
+            if (removePockets(tiles)) {
+                try {
+                    return new Map("Random Dungeon " + seed, goldRequired, tiles);
+                } catch (Exception e) {
+                    // not enough space for the gold, try again
+                }
+            }
+        }
+    }
+
+    /**
+     * Replaces randomly chosen empty tiles with the given tile.
+     */
+    private static void placeTiles(char[][] tiles, char tile, int count, Random random) {
+        for (int placed = 0, attempts = 0; placed < count && attempts < 1000; attempts++) {
+            int row = random.nextInt(tiles.length);
+            int column = random.nextInt(tiles[0].length);
+
+            if (tiles[row][column] == '.') {
+                tiles[row][column] = tile;
+                placed++;
+            }
+        }
+    }
+
+    /**
+     * Turns every tile that cannot be reached from the first exit tile into a wall, so that players
+     * are never placed in a pocket sealed off by walls.
+     * @return If every gold and exit tile could be reached from the first exit tile.
+     */
+    private static boolean removePockets(char[][] tiles) {
+        int rows = tiles.length;
+        int columns = tiles[0].length;
+
+        int[] queue = new int[rows * columns];
+        boolean[] visited = new boolean[rows * columns];
+        int head = 0;
+        int tail = 0;
+
+        for (int i = 0; i < rows && tail == 0; i++) {
+            for (int j = 0; j < columns && tail == 0; j++) {
+                if (tiles[i][j] == 'E') {
+                    queue[tail++] = i * columns + j;
+                    visited[i * columns + j] = true;
+                }
+            }
+        }
+
+        while (head < tail) {
+            int current = queue[head++];
+            int row = current / columns;
+            int column = current % columns;
+
+            int[][] neighbours = {{row - 1, column}, {row + 1, column}, {row, column - 1}, {row, column + 1}};
+            for (int[] neighbour : neighbours) {
+                int next = neighbour[0] * columns + neighbour[1];
+
+                // the border is all walls, so neighbours of reachable tiles are always inside the map
+                if (tiles[neighbour[0]][neighbour[1]] != '#' && !visited[next]) {
+                    visited[next] = true;
+                    queue[tail++] = next;
+                }
+            }
+        }
+
+        boolean connected = tail > 0;
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < columns; j++) {
+                if (tiles[i][j] != '#' && !visited[i * columns + j]) {
+                    if (tiles[i][j] == 'G' || tiles[i][j] == 'E') {
+                        connected = false;
+                    }
+
+                    tiles[i][j] = '#';
+                }
+            }
+        }
+
+        return connected;
+    }
+
+}
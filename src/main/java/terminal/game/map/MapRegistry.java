@@ -0,0 +1,325 @@
+package terminal.game.map;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps every map that can be played in memory, so that starting a game does not need to read a file.
+ * <br></br>
+ * Maps are read from a directory on disk and from a directory on the classpath, with maps on disk
+ * replacing classpath maps of the same name. All of the maps are read and validated in parallel when
+ * the registry is loaded. Once {@link #startWatching()} has been called, maps added to, changed in or
+ * removed from the directory on disk are reloaded while the game is running. The game itself only
+ * chooses a map once, so watching is left to programs that start many games from one registry.
+ */
+public class MapRegistry {
+
+    public static final String DEFAULT_DIRECTORY = "./src/main/resources/maps/";
+    public static final String CLASSPATH_DIRECTORY = "maps";
+
+    private static final String MAP_EXTENSION = ".txt";
+
+    private final Path directory;
+    private final String classpathDirectory;
+
+    // maps by file name, never given out directly as games change the map they are played on
+    private final java.util.Map<String, Map> directoryMaps = new ConcurrentHashMap<>();
+    private final java.util.Map<String, Map> classpathMaps = new ConcurrentHashMap<>();
+
+    private WatchService watcher;
+
+    /**
+     * Constructor for a registry using the default map directory and the maps on the classpath.
+     */
+    public MapRegistry() {
+        this(Paths.get(DEFAULT_DIRECTORY), CLASSPATH_DIRECTORY);
+    }
+
+    /**
+     * Constructor for MapRegistry object, the maps are not read until {@link #load()} is called.
+     * @param directory the directory on disk containing maps, may not exist.
+     * @param classpathDirectory the directory on the classpath containing maps, or null to only use the directory on disk.
+     */
+    public MapRegistry(Path directory, String classpathDirectory) {
+        this.directory = directory;
+        this.classpathDirectory = classpathDirectory;
+    }
+
+    /**
+     * Reads and validates every map in the directory and on the classpath in parallel.
+     * Maps that cannot be read are reported and left out of the registry.
+     * @throws IOException if a map directory cannot be listed.
+     */
+    public void load() throws IOException {
+        if (classpathDirectory != null) {
+            loadClasspathMaps();
+        }
+
+        if (Files.isDirectory(directory)) {
+            loadAll(listMaps(directory), directoryMaps, true);
+        }
+    }
+
+    /**
+     * Looks up a map by the name of its file.
+     * @param name the name of the file containing the map, the .txt extension may be left out.
+     * @return A new copy of the map that a game can be played on, or null if there is no map with that name.
+     */
+    public Map getMap(String name) {
+        if (!name.endsWith(MAP_EXTENSION)) {
+            name += MAP_EXTENSION;
+        }
+
+        Map map = directoryMaps.get(name);
+        if (map == null) {
+            map = classpathMaps.get(name);
+        }
+
+        return map == null ? null : new Map(map);
+    }
+
+    /**
+     * Reads a single map from the directory, or from the classpath if it is not in the directory,
+     * without loading the rest of the registry. Used when the map is known in advance, so that
+     * starting the game does not read every map.
+     * @param name the name of the file containing the map, the .txt extension may be left out.
+     * @return The map, or null if there is no valid map with that name.
+     */
+    public Map loadMap(String name) {
+        if (!name.endsWith(MAP_EXTENSION)) {
+            name += MAP_EXTENSION;
+        }
+
+        Path file = directory.resolve(name);
+        if (Files.isRegularFile(file)) {
+            return readMap(file, true);
+        }
+
+        if (classpathDirectory == null) {
+            return null;
+        }
+
+        InputStream stream = MapRegistry.class.getClassLoader().getResourceAsStream(classpathDirectory + "/" + name);
+        if (stream == null) {
+            return null;
+        }
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8))) {
+            return new Map(reader);
+        } catch (Exception e) {
+            System.err.println("\nThere was a problem with the map " + name + ", it has been skipped.");
+            return null;
+        }
+    }
+
+    /**
+     * @return The file names of all of the maps in the registry, in alphabetical order.
+     */
+    public Set<String> getMapNames() {
+        Set<String> names = new TreeSet<String>(classpathMaps.keySet());
+        names.addAll(directoryMaps.keySet());
+
+        return Collections.unmodifiableSet(names);
+    }
+
+    /**
+     * Starts a background thread that reloads maps in the directory on disk when they change.
+     * Only the files that changed are read again.
+     * @throws IOException if the directory cannot be watched.
+     */
+    public synchronized void startWatching() throws IOException {
+        if (watcher != null) {
+            return;
+        }
+
+        watcher = directory.getFileSystem().newWatchService();
+        directory.register(watcher, StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+
+        Thread thread = new Thread(this::watch, "map-registry-watcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stops reloading maps when they change.
+     */
+    public synchronized void stopWatching() {
+        if (watcher != null) {
+            try {
+                watcher.close();
+            } catch (IOException e) {
+                System.err.println("\nError: " + e.getMessage());
+            }
+
+            watcher = null;
+        }
+    }
+
+    /**
+     * Waits for changes to the directory and reloads the maps that changed, until the watcher is closed.
+     */
+    private void watch() {
+        WatchService watchService = watcher;
+
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                        reloadDirectory();
+                        continue;
+                    }
+
+                    Path file = directory.resolve((Path) event.context());
+                    String name = file.getFileName().toString();
+
+                    if (!name.endsWith(MAP_EXTENSION)) {
+                        continue;
+                    }
+
+                    if (event.kind() == StandardWatchEventKinds.ENTRY_DELETE) {
+                        directoryMaps.remove(name);
+                    } else {
+                        // if the new version cannot be read, e.g. it is only half written, keep the old version
+                        // without reporting it, the file will change again when it has been written
+                        Map map = readMap(file, false);
+                        if (map != null) {
+                            directoryMaps.put(name, map);
+                        }
+                    }
+                }
+
+                if (!key.reset()) {
+                    break; // the directory no longer exists
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // stopWatching() was called
+        } catch (IOException e) {
+            System.err.println("\nError: " + e.getMessage());
+            System.err.println("Cause: " + e.getCause());
+        }
+    }
+
+    /**
+     * Reads the whole directory again after some changes were missed. The new maps are read
+     * before any old maps are replaced or removed, so games started during the reload always
+     * find the map they ask for. Files that cannot be read keep their old version, as they may
+     * still be being written.
+     * @throws IOException if the directory cannot be listed.
+     */
+    private void reloadDirectory() throws IOException {
+        List<Path> files = listMaps(directory);
+
+        java.util.Map<String, Map> reloaded = new ConcurrentHashMap<String, Map>();
+        loadAll(files, reloaded, false);
+
+        Set<String> names = new TreeSet<String>();
+        for (Path file : files) {
+            names.add(file.getFileName().toString());
+        }
+
+        directoryMaps.putAll(reloaded);
+        directoryMaps.keySet().retainAll(names);
+    }
+
+    /**
+     * Reads the maps from the classpath directory, whether it is a directory on disk or inside a jar.
+     * @throws IOException if the classpath directory cannot be listed.
+     */
+    private void loadClasspathMaps() throws IOException {
+        URL url = MapRegistry.class.getClassLoader().getResource(classpathDirectory);
+        if (url == null) {
+            return;
+        }
+
+        try {
+            URI uri = url.toURI();
+
+            if (uri.getScheme().equals("jar")) {
+                try (FileSystem jar = FileSystems.newFileSystem(uri, Collections.<String, Object>emptyMap())) {
+                    loadAll(listMaps(jar.getPath(classpathDirectory)), classpathMaps, true);
+                }
+            } else {
+                loadAll(listMaps(Paths.get(uri)), classpathMaps, true);
+            }
+        } catch (Exception e) {
+            throw new IOException("Could not read maps from the classpath: " + url, e);
+        }
+    }
+
+    /**
+     * @return The map files in a directory.
+     * @param mapDirectory the directory to list.
+     * @throws IOException if the directory cannot be listed.
+     */
+    private static List<Path> listMaps(Path mapDirectory) throws IOException {
+        List<Path> files = new ArrayList<Path>();
+
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(mapDirectory, "*" + MAP_EXTENSION)) {
+            for (Path file : stream) {
+                files.add(file);
+            }
+        }
+
+        return files;
+    }
+
+    /**
+     * Reads the given files in parallel, adding each valid map to the registry.
+     * @param files the map files to read.
+     * @param maps where the maps are stored, by file name.
+     * @param report whether files that are not valid maps are reported to the user.
+     */
+    private static void loadAll(List<Path> files, java.util.Map<String, Map> maps, boolean report) {
+        files.parallelStream().forEach(file -> {
+            Map map = readMap(file, report);
+            if (map != null) {
+                maps.put(file.getFileName().toString(), map);
+            }
+        });
+    }
+
+    /**
+     * Reads and validates a single map.
+     * @param file the file containing the map.
+     * @param report whether the user is told if the file is not a valid map.
+     * @return The map, or null if the file could not be read or is not a valid map.
+     */
+    private static Map readMap(Path file, boolean report) {
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return new Map(reader);
+        } catch (Exception e) {
+            if (report) {
+                System.err.println("\nThere was a problem with the map " + file.getFileName() + ", it has been skipped.");
+            }
+
+            return null;
+        }
+    }
+
+}